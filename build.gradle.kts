@@ -6,6 +6,7 @@ plugins {
 	kotlin("jvm") version "1.6.21"
 	kotlin("plugin.spring") version "1.6.21"
 	id("io.freefair.lombok") version "6.4.1"
+	id("me.champeau.jmh") version "0.6.8"
 }
 
 group = "com.persons.finder"
@@ -16,11 +17,25 @@ repositories {
 	mavenCentral()
 }
 
+// 9.0.7x+ guards sockets with locks instead of synchronized, so requests on virtual threads do not pin carriers
+extra["tomcat.version"] = "9.0.83"
+
 java {
 	sourceCompatibility = JavaVersion.VERSION_17
 	targetCompatibility = JavaVersion.VERSION_17
 }
 
+// End-to-end load generator in src/loadTest/java, run with ./gradlew loadTest
+sourceSets {
+	create("loadTest") {
+		compileClasspath += sourceSets.main.get().output
+		runtimeClasspath += sourceSets.main.get().output
+	}
+}
+
+configurations["loadTestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
 dependencies {
 	implementation("org.springframework.boot:spring-boot-starter")
 	implementation("org.springframework.boot:spring-boot-starter-data-jpa")
@@ -28,6 +43,8 @@ dependencies {
 
 	implementation("com.google.code.gson:gson:2.10.1")
 	implementation("org.springframework.boot:spring-boot-starter-validation")
+	implementation("org.springframework.boot:spring-boot-starter-actuator")
+	implementation("io.micrometer:micrometer-registry-prometheus")
 
 	implementation("org.springdoc:springdoc-openapi-ui:1.6.9")
 	implementation("org.testng:testng:7.1.0")
@@ -37,15 +54,24 @@ dependencies {
 	annotationProcessor("org.projectlombok:lombok-mapstruct-binding:0.2.0")
 
 	implementation("com.h2database:h2:2.1.212")
+	implementation("com.github.ben-manes.caffeine:caffeine")
+	implementation("io.github.resilience4j:resilience4j-circuitbreaker:1.7.1")
+	implementation("io.github.resilience4j:resilience4j-bulkhead:1.7.1")
+	implementation("io.github.resilience4j:resilience4j-micrometer:1.7.1")
+	implementation("org.apache.httpcomponents:httpclient")
+	implementation("io.projectreactor:reactor-core")
 
 	implementation("org.jetbrains.kotlin:kotlin-reflect")
 	implementation("com.fasterxml.jackson.module:jackson-module-kotlin")
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-csv")
 
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("org.mockito:mockito-core")
 
 	implementation("org.mapstruct:mapstruct:1.5.5.Final")
 	annotationProcessor("org.mapstruct:mapstruct-processor:1.5.5.Final")
+
+	"loadTestImplementation"("org.hdrhistogram:HdrHistogram:2.1.12")
 }
 
 tasks.withType<KotlinCompile> {
@@ -57,4 +83,24 @@ tasks.withType<KotlinCompile> {
 
 tasks.withType<Test> {
 	useJUnitPlatform()
+}
+
+tasks.register<JavaExec>("loadTest") {
+	group = "verification"
+	description = "Boots the app with MockAiClient and seeded data and replays requests.http at a target rate. Options via --args."
+	classpath = sourceSets["loadTest"].runtimeClasspath
+	mainClass.set("com.persons.finder.loadtest.LoadTestRunner")
+	workingDir = projectDir
+	jvmArgs("-Xmx2g")
+	// -PloadTestJdk=21 runs the app on a newer JDK, e.g. with --app.virtual-threads.enabled=true
+	project.findProperty("loadTestJdk")?.let { jdk ->
+		javaLauncher.set(javaToolchains.launcherFor { languageVersion.set(JavaLanguageVersion.of(jdk.toString())) })
+	}
+}
+
+// Microbenchmarks in src/jmh/java: ./gradlew jmh (filter with -PjmhIncludes=GeoBenchmark)
+jmh {
+	jmhVersion.set("1.36")
+	resultFormat.set("JSON")
+	project.findProperty("jmhIncludes")?.let { includes.set(listOf(it.toString())) }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package com.persons.finder.benchmark;
+
+import com.persons.finder.infrastructure.util.GeoUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geo math on the nearby/nearest paths: the bounding box prefilter and the two distance formulas.
+ * The spherical law of cosines mirrors PersonRepository.DISTANCE_KM so both sides of the
+ * index-vs-query comparison are measured with the same inputs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeoBenchmark {
+
+    private static final int POINTS = 1024;
+    private static final double EARTH_RADIUS = 6371.01;
+
+    private final double[] lats = new double[POINTS];
+    private final double[] lons = new double[POINTS];
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < POINTS; i++) {
+            lats[i] = -90 + 180 * random.nextDouble();
+            lons[i] = -180 + 360 * random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public GeoUtils.BoundingBox boundingBox() {
+        int i = next();
+        return GeoUtils.calculateBoundingBox(lats[i], lons[i], 10);
+    }
+
+    @Benchmark
+    public void haversine(Blackhole blackhole) {
+        int i = next();
+        int j = (i + 1) & (POINTS - 1);
+        blackhole.consume(GeoUtils.distanceKm(lats[i], lons[i], lats[j], lons[j]));
+    }
+
+    @Benchmark
+    public void sphericalLawOfCosines(Blackhole blackhole) {
+        int i = next();
+        int j = (i + 1) & (POINTS - 1);
+        blackhole.consume(lawOfCosinesKm(lats[i], lons[i], lats[j], lons[j]));
+    }
+
+    private int next() {
+        return cursor = (cursor + 1) & (POINTS - 1);
+    }
+
+    static double lawOfCosinesKm(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        return EARTH_RADIUS * Math.acos(Math.cos(phi1) * Math.cos(phi2)
+                * Math.cos(Math.toRadians(lon2) - Math.toRadians(lon1))
+                + Math.sin(phi1) * Math.sin(phi2));
+    }
+}
@@ -0,0 +1,109 @@
+package com.persons.finder.benchmark;
+
+import com.persons.finder.domain.repository.PersonReadRepository;
+import com.persons.finder.domain.repository.PersonReadRepository.LocationBackend;
+import com.persons.finder.dto.PersonFields;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.infrastructure.spatial.CellIdBackfill;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The SQL nearby query on the seeded dataset (uniform over the globe, like DataSeeder) with each
+ * bounding-box backend. The B-tree reads the whole latitude band of the box and filters longitude row by
+ * row; the R-tree on the geometry column and the cell-id ranges read little more than the box. Seeding takes
+ * about a minute per trial; for CELL the rows are seeded without cell ids and the backfill logs its time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class NearbyQueryBenchmark {
+
+    private static final int CENTERS = 360;
+
+    @Param({"BTREE", "GEOMETRY", "CELL"})
+    private LocationBackend backend;
+
+    @Param({"0", "60"})
+    private double latitude;
+
+    @Param({"10", "100"})
+    private double radiusKm;
+
+    @Param("1000000")
+    private int records;
+
+    private JdbcTemplate jdbcTemplate;
+    private PersonReadRepository repository;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void seed() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:nearby;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // the persons table as Hibernate creates it
+        jdbcTemplate.execute("CREATE TABLE persons (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "bio TEXT, bio_status VARCHAR(16), created_at TIMESTAMP, hobbies VARCHAR(255), job_title VARCHAR(255), " +
+                "latitude DOUBLE, longitude DOUBLE, cell_id BIGINT, name VARCHAR(255) NOT NULL, updated_at TIMESTAMP, " +
+                "version BIGINT)");
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            connection.setAutoCommit(false);
+            SplittableRandom random = new SplittableRandom(1);
+            try (PreparedStatement ps = connection.prepareStatement("INSERT INTO persons (name, job_title, hobbies, bio, " +
+                    "bio_status, latitude, longitude, version, created_at) VALUES ('Alex Martinez', 'Software Engineer', " +
+                    "'Sailing, Chess', 'AI generated bio placeholder', 'READY', ?, ?, 0, CURRENT_TIMESTAMP)")) {
+                for (int i = 1; i <= records; i++) {
+                    ps.setDouble(1, -90 + 180 * random.nextDouble());
+                    ps.setDouble(2, -180 + 360 * random.nextDouble());
+                    ps.addBatch();
+                    if (i % 10_000 == 0 || i == records) {
+                        ps.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            return null;
+        });
+        jdbcTemplate.execute("CREATE INDEX idx_location ON persons (latitude, longitude)");
+        jdbcTemplate.execute("CREATE INDEX idx_cell ON persons (cell_id, latitude, longitude, id)");
+        if (backend == LocationBackend.GEOMETRY) {
+            new ResourceDatabasePopulator(new ClassPathResource("db/person-geometry.sql")).execute(dataSource);
+        }
+        CellIdBackfill backfill = new CellIdBackfill(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), true, 10_000);
+        if (backend == LocationBackend.CELL) {
+            backfill.run();
+        }
+        repository = new PersonReadRepository(new NamedParameterJdbcTemplate(dataSource), 1000, backend, backfill);
+    }
+
+    @TearDown(Level.Trial)
+    public void drop() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Benchmark
+    public List<PersonResponse> findNearby() {
+        cursor = (cursor + 1) % CENTERS;
+        double longitude = -179.5 + cursor;
+        GeoUtils.BoundingBox box = GeoUtils.calculateBoundingBox(latitude, longitude, radiusKm);
+        return repository.findNearby(latitude, longitude, radiusKm, box, 0, 10, PersonFields.ALL);
+    }
+}
@@ -0,0 +1,47 @@
+package com.persons.finder.benchmark;
+
+import com.persons.finder.domain.model.BioStatus;
+import com.persons.finder.domain.model.Location;
+import com.persons.finder.domain.model.Person;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.mapper.PersonMapper;
+import com.persons.finder.mapper.PersonMapperImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping, paid once per person in every nearby/nearest response.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonMapperBenchmark {
+
+    private final PersonMapper mapper = new PersonMapperImpl();
+    private Person person;
+
+    @Setup
+    public void setUp() {
+        person = Person.builder()
+                .id(42L)
+                .name("Alex Martinez")
+                .jobTitle("Software Engineer")
+                .hobbies("Sailing, Chess, Photography")
+                .bio("Alex Martinez is a software engineer who loves sailing and chess.")
+                .bioStatus(BioStatus.READY)
+                .location(new Location(-41.2865, 174.7762))
+                .version(3L)
+                .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+
+    @Benchmark
+    public PersonResponse toResponse() {
+        return mapper.toResponse(person);
+    }
+}
@@ -0,0 +1,95 @@
+package com.persons.finder.benchmark;
+
+import com.persons.finder.domain.repository.SecurityPatternRepository;
+import com.persons.finder.domain.repository.SecurityPatternVersionRepository;
+import com.persons.finder.exception.SecurityValidationException;
+import com.persons.finder.infrastructure.security.SecurityManager;
+import com.persons.finder.infrastructure.security.SecurityPatternRegistry;
+import com.persons.finder.infrastructure.security.strategy.InputValidationStrategy;
+import com.persons.finder.infrastructure.security.strategy.OutputFilterStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SecurityManager on every create request: input validation of hobbies and sanitizing of the AI bio,
+ * for the seeded four patterns up to a large blacklist. Texts are clean, so every pattern is checked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityBenchmark {
+
+    private static final String[] WORDS = {"ignore", "system", "prompt", "bypass", "reveal", "instructions",
+            "previous", "secret", "admin", "override", "developer", "mode", "jailbreak", "token", "policy", "raw"};
+
+    @Param({"4", "100", "1000"})
+    public int patterns;
+
+    private SecurityManager securityManager;
+
+    private final String hobbies = "Hiking, Photography, Sailing, Chess, Cooking Italian food, Coding in Java";
+    private final String bio = "Alex Martinez is a software engineer from Wellington who spends weekends sailing "
+            + "the harbour, photographing coastal hikes and teaching kids to play chess at the local club.";
+
+    @Setup
+    public void setUp() {
+        List<String> blacklist = blacklist(patterns);
+        SecurityPatternRegistry registry = new SecurityPatternRegistry(
+                repository(SecurityPatternRepository.class, blacklist),
+                repository(SecurityPatternVersionRepository.class, blacklist));
+        registry.reload();
+        // the meters are part of the production path, so they stay in the measurement
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        securityManager = new SecurityManager(List.of(
+                new InputValidationStrategy(registry), new OutputFilterStrategy(registry, meterRegistry)), meterRegistry);
+    }
+
+    @Benchmark
+    public String validateInput() {
+        try {
+            securityManager.validateInput(hobbies);
+        } catch (SecurityValidationException e) {
+            throw new IllegalStateException("Benchmark input must be clean", e);
+        }
+        return hobbies;
+    }
+
+    @Benchmark
+    public String sanitizeOutput() {
+        return securityManager.sanitizeOutput(bio);
+    }
+
+    private static List<String> blacklist(int count) {
+        List<String> result = new ArrayList<>(List.of("ignore all instructions", "system prompt", "hacked", "bypass"));
+        SplittableRandom random = new SplittableRandom(7);
+        while (result.size() < count) {
+            result.add(WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + result.size());
+        }
+        return result.subList(0, count);
+    }
+
+    // the registry only calls findPatternsByType and currentVersion; a proxy keeps JPA out of the benchmark
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, List<String> blacklist) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) ->
+                switch (method.getName()) {
+                    // first half input, second half output, like the seeded table
+                    case "findPatternsByType" -> "INPUT_FILTER".equals(args[0])
+                            ? blacklist.subList(0, blacklist.size() / 2)
+                            : blacklist.subList(blacklist.size() / 2, blacklist.size());
+                    case "currentVersion" -> Optional.of(1L);
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
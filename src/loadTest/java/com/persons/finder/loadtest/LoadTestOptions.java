@@ -0,0 +1,100 @@
+package com.persons.finder.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line of the load generator, as {@code --key=value} pairs. Keys starting with app., spring.,
+ * server. or logging. are passed through to the embedded application.
+ */
+record LoadTestOptions(
+        String baseUrl,
+        double rps,
+        Duration duration,
+        Duration warmup,
+        int clients,
+        Map<String, Integer> mix,
+        Path requestsFile,
+        boolean seed,
+        Duration seedTimeout,
+        long maxId,
+        Path reportDir,
+        List<String> appArgs
+) {
+
+    private static final List<String> APP_PREFIXES = List.of("app.", "spring.", "server.", "logging.");
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --key=value but got: " + arg);
+            }
+            String key = arg.substring(2, arg.indexOf('='));
+            if (APP_PREFIXES.stream().anyMatch(key::startsWith)) {
+                appArgs.add(arg);
+            } else {
+                values.put(key, arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+
+        boolean seed = Boolean.parseBoolean(values.getOrDefault("seed", "true"));
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("base-url"),
+                Double.parseDouble(values.getOrDefault("rps", "200")),
+                duration(values.getOrDefault("duration", "60s")),
+                duration(values.getOrDefault("warmup", "10s")),
+                Integer.parseInt(values.getOrDefault("clients", "64")),
+                mix(values.getOrDefault("mix", "create:1,update:3,nearby:6")),
+                Path.of(values.getOrDefault("requests", "requests.http")),
+                seed,
+                duration(values.getOrDefault("seed-timeout", "10m")),
+                Long.parseLong(values.getOrDefault("max-id", seed ? "1000000" : "0")),
+                Path.of(values.getOrDefault("report-dir", "build/load-test")),
+                appArgs);
+        List.of("rps", "duration", "warmup", "clients", "mix", "requests", "seed", "seed-timeout", "max-id", "report-dir")
+                .forEach(values::remove);
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rps() <= 0 || options.clients() <= 0) {
+            throw new IllegalArgumentException("rps and clients must be positive");
+        }
+        return options;
+    }
+
+    // 90s, 5m, 500ms or plain seconds
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("s")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        return Duration.ofSeconds(Long.parseLong(value));
+    }
+
+    // create:1,update:3,nearby:6
+    private static Map<String, Integer> mix(String value) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : value.split(",")) {
+            String[] entry = part.trim().split(":");
+            int weight = entry.length > 1 ? Integer.parseInt(entry[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(entry[0].trim(), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Empty request mix: " + value);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,246 @@
+package com.persons.finder.loadtest;
+
+import com.persons.finder.ApplicationStarter;
+import com.persons.finder.infrastructure.seed.DataSeededEvent;
+import com.persons.finder.infrastructure.spatial.PersonSpatialIndex;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator. Boots the application with MockAiClient (or targets --base-url), then
+ * replays the requests.http entries named in --mix at a fixed arrival rate from a pool of virtual
+ * clients, and reports throughput and HdrHistogram latencies per endpoint.
+ * <p>
+ * Latency is measured from each request's scheduled send time, so a stalled server shows up as
+ * queueing delay instead of silently lowering the offered load (no coordinated omission).
+ * <p>
+ * {@code ./gradlew loadTest --args="--rps=500 --duration=60s --clients=128 --mix=create:1,update:3,nearby:6"}
+ */
+public class LoadTestRunner {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Map<String, RequestTemplate> available = RequestTemplate.parse(options.requestsFile());
+        List<RequestTemplate> templates = new ArrayList<>();
+        List<Integer> weights = new ArrayList<>();
+        options.mix().forEach((name, weight) -> {
+            RequestTemplate template = available.get(name);
+            if (template == null) {
+                throw new IllegalArgumentException("No request named '" + name + "' in " + options.requestsFile()
+                        + ", available: " + available.keySet());
+            }
+            templates.add(template);
+            weights.add(weight);
+        });
+
+        ConfigurableApplicationContext context = null;
+        URI baseUri;
+        if (options.baseUrl() != null) {
+            baseUri = URI.create(options.baseUrl());
+        } else {
+            context = startApplication(options);
+            baseUri = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+        }
+
+        try {
+            Map<String, EndpointStats> stats = run(options, baseUri, templates, weights);
+            report(options, stats);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        // the app's async executors are not daemon threads
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestOptions options) throws InterruptedException {
+        CountDownLatch seeded = new CountDownLatch(options.seed() ? 1 : 0);
+        AtomicLong seededRecords = new AtomicLong();
+        System.out.println("Starting application" + (options.seed() ? " and seeding data..." : "..."));
+
+        // passed as command line arguments so they win over application.yml; user overrides come last
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--app.ai.mock=true",
+                "--app.seed-data=" + options.seed(),
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.persons.finder=WARN"));
+        args.addAll(options.appArgs());
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ApplicationStarter.class)
+                .listeners(event -> {
+                    if (event instanceof PayloadApplicationEvent<?> payload
+                            && payload.getPayload() instanceof DataSeededEvent done) {
+                        seededRecords.set(done.records());
+                        seeded.countDown();
+                    }
+                })
+                .run(args.toArray(new String[0]));
+
+        if (!seeded.await(options.seedTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            context.close();
+            throw new IllegalStateException("Seeding did not finish within " + options.seedTimeout());
+        }
+        // the spatial index rebuilds on the same event; measure the steady state, not the fallback path
+        PersonSpatialIndex index = context.getBeanProvider(PersonSpatialIndex.class).getIfAvailable();
+        boolean indexEnabled = context.getEnvironment().getProperty("app.spatial-index.enabled", Boolean.class, true);
+        while (index != null && indexEnabled && (!index.isReady() || index.size() < seededRecords.get())) {
+            Thread.sleep(100);
+        }
+        return context;
+    }
+
+    private static Map<String, EndpointStats> run(LoadTestOptions options, URI baseUri,
+                                                  List<RequestTemplate> templates, List<Integer> weights)
+            throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        templates.forEach(t -> stats.put(t.name(), new EndpointStats()));
+        int[] cumulative = new int[weights.size()];
+        for (int i = 0, sum = 0; i < weights.size(); i++) {
+            cumulative[i] = sum += weights.get(i);
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        // bounded backlog: when the server falls this far behind, further arrivals are counted as dropped
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(options.clients(), options.clients(), 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(options.clients() * 100), r -> {
+                    Thread thread = new Thread(r, "LoadClient");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rps());
+        long total = (long) (options.rps() * (options.warmup().toMillis() + options.duration().toMillis()) / 1000);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        long measureFrom = start + options.warmup().toNanos();
+        SplittableRandom random = new SplittableRandom(42);
+        System.out.printf("Offering %.0f req/s for %ds (+%ds warm-up) from %d clients against %s%n",
+                options.rps(), options.duration().toSeconds(), options.warmup().toSeconds(), options.clients(), baseUri);
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int pick = random.nextInt(cumulative[cumulative.length - 1]);
+            int index = 0;
+            while (pick >= cumulative[index]) {
+                index++;
+            }
+            RequestTemplate template = templates.get(index);
+            EndpointStats endpoint = stats.get(template.name());
+            boolean measured = intended >= measureFrom;
+            HttpRequest request = template.materialize(baseUri, random, options.maxId(), i);
+            try {
+                workers.execute(() -> send(client, request, intended, measured, endpoint));
+            } catch (RejectedExecutionException e) {
+                if (measured) {
+                    endpoint.dropped.incrementAndGet();
+                }
+            }
+        }
+        workers.shutdown();
+        workers.awaitTermination(2, TimeUnit.MINUTES);
+        return stats;
+    }
+
+    private static void send(HttpClient client, HttpRequest request, long intended, boolean measured, EndpointStats stats) {
+        boolean ok;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            ok = response.statusCode() < 400;
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+            stats.latency.recordValue(Math.min(Math.max(micros, 1), MAX_LATENCY_MICROS));
+            if (!ok) {
+                stats.errors.incrementAndGet();
+            }
+        }
+    }
+
+    private static void report(LoadTestOptions options, Map<String, EndpointStats> stats) throws IOException {
+        double seconds = options.duration().toMillis() / 1000.0;
+        Files.createDirectories(options.reportDir());
+        System.out.println();
+        System.out.printf("%-10s %9s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        long errors = 0;
+        long dropped = 0;
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            EndpointStats endpoint = entry.getValue();
+            print(entry.getKey(), endpoint.latency, endpoint.errors.get(), endpoint.dropped.get(), seconds);
+            all.add(endpoint.latency);
+            errors += endpoint.errors.get();
+            dropped += endpoint.dropped.get();
+            write(options.reportDir().resolve(entry.getKey() + ".hgrm"), endpoint.latency);
+        }
+        print("total", all, errors, dropped, seconds);
+        write(options.reportDir().resolve("total.hgrm"), all);
+        System.out.println("\nPercentile distributions (ms) written to " + options.reportDir().toAbsolutePath());
+    }
+
+    private static void print(String name, Histogram latency, long errors, long dropped, double seconds) {
+        System.out.printf("%-10s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, latency.getTotalCount(), latency.getTotalCount() / seconds, errors, dropped,
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(90)),
+                millis(latency.getValueAtPercentile(99)), millis(latency.getValueAtPercentile(99.9)),
+                millis(latency.getMaxValue()));
+    }
+
+    private static void write(Path file, Histogram latency) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            latency.outputPercentileDistribution(out, 1000.0);
+        }
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class EndpointStats {
+        private final Histogram latency = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+    }
+}
@@ -0,0 +1,138 @@
+package com.persons.finder.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * One request of requests.http. Replays vary what a real client would vary: coordinates, the person id
+ * in the path and the created person's name; everything else is sent as written.
+ */
+record RequestTemplate(String name, String method, String pathAndQuery, Map<String, String> headers, String body) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Pattern REQUEST_LINE = Pattern.compile("^(GET|POST|PUT|PATCH|DELETE)\\s+(\\S+)");
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$|\\?)");
+    private static final Pattern LAT_PARAM = Pattern.compile("([?&]lat=)[^&]*");
+    private static final Pattern LON_PARAM = Pattern.compile("([?&]lon=)[^&]*");
+
+    /**
+     * Parses the IntelliJ HTTP client format: blocks separated by ### lines, a request line, headers,
+     * a blank line and an optional body.
+     */
+    static Map<String, RequestTemplate> parse(Path file) throws IOException {
+        Map<String, RequestTemplate> templates = new LinkedHashMap<>();
+        List<String> block = new ArrayList<>();
+        for (String line : Files.readAllLines(file)) {
+            if (line.startsWith("###")) {
+                add(templates, block);
+                block.clear();
+            } else {
+                block.add(line);
+            }
+        }
+        add(templates, block);
+        return templates;
+    }
+
+    private static void add(Map<String, RequestTemplate> templates, List<String> block) {
+        int i = 0;
+        while (i < block.size() && (block.get(i).isBlank() || block.get(i).startsWith("#"))) {
+            i++;
+        }
+        if (i == block.size()) {
+            return;
+        }
+        Matcher requestLine = REQUEST_LINE.matcher(block.get(i).trim());
+        if (!requestLine.find()) {
+            return;
+        }
+        URI uri = URI.create(requestLine.group(2));
+        String pathAndQuery = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (i++; i < block.size() && !block.get(i).isBlank(); i++) {
+            String header = block.get(i);
+            headers.put(header.substring(0, header.indexOf(':')).trim(), header.substring(header.indexOf(':') + 1).trim());
+        }
+        String body = String.join("\n", block.subList(Math.min(i, block.size()), block.size())).trim();
+
+        String name = name(requestLine.group(1), uri.getRawPath());
+        templates.putIfAbsent(name, new RequestTemplate(name, requestLine.group(1), pathAndQuery, headers, body));
+    }
+
+    // POST /persons -> create, PUT /persons/{id}/location -> update, otherwise the last path segment
+    private static String name(String method, String path) {
+        String last = path.substring(path.lastIndexOf('/') + 1);
+        if ("POST".equals(method) && "persons".equals(last)) {
+            return "create";
+        }
+        if ("PUT".equals(method) && "location".equals(last)) {
+            return "update";
+        }
+        return last;
+    }
+
+    HttpRequest materialize(URI baseUri, SplittableRandom random, long maxId, long sequence) {
+        String path = pathAndQuery;
+        if (maxId > 0) {
+            path = ID_SEGMENT.matcher(path).replaceFirst("/" + (1 + random.nextLong(maxId)));
+        }
+        path = LAT_PARAM.matcher(path).replaceFirst("$1" + format(latitude(random)));
+        path = LON_PARAM.matcher(path).replaceFirst("$1" + format(longitude(random)));
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(30));
+        headers.forEach(builder::header);
+        builder.method(method, body.isEmpty()
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofString(body(random, sequence)));
+        return builder.build();
+    }
+
+    private String body(SplittableRandom random, long sequence) {
+        try {
+            JsonNode json = MAPPER.readTree(body);
+            if (json instanceof ObjectNode object) {
+                if (object.has("latitude")) {
+                    object.put("latitude", latitude(random));
+                }
+                if (object.has("longitude")) {
+                    object.put("longitude", longitude(random));
+                }
+                if (object.has("name")) {
+                    object.put("name", object.get("name").asText() + " " + sequence);
+                }
+            }
+            return MAPPER.writeValueAsString(json);
+        } catch (IOException e) {
+            return body;
+        }
+    }
+
+    private static double latitude(SplittableRandom random) {
+        return Math.round((-90 + 180 * random.nextDouble()) * 10_000) / 10_000.0;
+    }
+
+    private static double longitude(SplittableRandom random) {
+        return Math.round((-180 + 360 * random.nextDouble()) * 10_000) / 10_000.0;
+    }
+
+    private static String format(double degrees) {
+        return String.format(Locale.ROOT, "%.4f", degrees);
+    }
+}
@@ -0,0 +1,124 @@
+package com.persons.finder.application;
+
+import com.persons.finder.domain.model.BioStatus;
+import com.persons.finder.domain.model.Person;
+import com.persons.finder.domain.repository.PersonRepository;
+import com.persons.finder.domain.service.BioGenerator;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.infrastructure.spatial.NearbyTileCache;
+import com.persons.finder.mapper.PersonMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates bios for persons that were saved in the PENDING state.
+ * The AI call runs on the bounded bio executor outside any transaction; only the short write-back touches the database.
+ */
+@Slf4j
+@Service
+public class BioEnrichmentService {
+
+    private final BioGenerator bioGenerator;
+    private final PersonRepository personRepository;
+    private final PersonMapper personMapper;
+    private final ThreadPoolTaskExecutor bioExecutor;
+    private final NearbyTileCache nearbyTileCache;
+
+    // one future per waiting caller; lists are only changed inside the map's atomic compute methods
+    private final Map<Long, List<CompletableFuture<PersonResponse>>> waiters = new ConcurrentHashMap<>();
+
+    public BioEnrichmentService(BioGenerator bioGenerator,
+                                PersonRepository personRepository,
+                                PersonMapper personMapper,
+                                @Qualifier("bioExecutor") ThreadPoolTaskExecutor bioExecutor,
+                                NearbyTileCache nearbyTileCache) {
+        this.bioGenerator = bioGenerator;
+        this.personRepository = personRepository;
+        this.personMapper = personMapper;
+        this.bioExecutor = bioExecutor;
+        this.nearbyTileCache = nearbyTileCache;
+    }
+
+    /**
+     * Queues bio generation for an already committed person.
+     */
+    public void enqueue(Person person) {
+        try {
+            bioExecutor.execute(() -> generate(person));
+        } catch (TaskRejectedException e) {
+            log.warn("Bio queue is full, marking person {} as FAILED", person.getId());
+            complete(person, null, BioStatus.FAILED);
+        }
+    }
+
+    /**
+     * Completes once the bio of the given person is no longer PENDING. A caller that stops waiting first
+     * must pass the future to {@link #stopAwaiting}.
+     */
+    public CompletableFuture<PersonResponse> awaitBio(Long id, PersonResponse current) {
+        if (current.bioStatus() != BioStatus.PENDING) {
+            return CompletableFuture.completedFuture(current);
+        }
+        CompletableFuture<PersonResponse> future = new CompletableFuture<>();
+        waiters.compute(id, (key, futures) -> {
+            List<CompletableFuture<PersonResponse>> registered = futures != null ? futures : new ArrayList<>(1);
+            registered.add(future);
+            return registered;
+        });
+        // the worker may have finished between the caller's read and our registration
+        personRepository.findById(id)
+                .filter(person -> person.getBioStatus() != BioStatus.PENDING)
+                .ifPresent(person -> {
+                    stopAwaiting(id, future);
+                    future.complete(personMapper.toResponse(person));
+                });
+        return future;
+    }
+
+    /**
+     * Unregisters a future returned by {@link #awaitBio}, e.g. when its long-poll timed out.
+     */
+    public void stopAwaiting(Long id, CompletableFuture<PersonResponse> future) {
+        waiters.computeIfPresent(id, (key, futures) -> {
+            futures.remove(future);
+            return futures.isEmpty() ? null : futures;
+        });
+    }
+
+    /**
+     * Generates and stores the bio on the calling thread, returning the resulting status. An unavailable
+     * upstream leaves the bio FAILED; the placeholder bio is never stored as READY here.
+     */
+    BioStatus generate(Person person) {
+        try {
+            String bio = bioGenerator.generateBio(person);
+            complete(person, bio, BioStatus.READY);
+            return BioStatus.READY;
+        } catch (Exception e) {
+            log.error("Bio generation failed for person {}: {}", person.getId(), e.getMessage());
+            complete(person, null, BioStatus.FAILED);
+            return BioStatus.FAILED;
+        }
+    }
+
+    private void complete(Person person, String bio, BioStatus status) {
+        Long id = person.getId();
+        personRepository.updateBio(id, bio, status);
+        // cached nearby pages still show the PENDING bio
+        nearbyTileCache.invalidate(person.getLocation());
+        List<CompletableFuture<PersonResponse>> futures = waiters.remove(id);
+        if (futures != null) {
+            personRepository.findById(id).map(personMapper::toResponse)
+                    .ifPresent(response -> futures.forEach(future -> future.complete(response)));
+        }
+    }
+}
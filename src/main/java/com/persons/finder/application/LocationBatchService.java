@@ -0,0 +1,154 @@
+package com.persons.finder.application;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persons.finder.dto.LocationBatchResult;
+import com.persons.finder.dto.LocationRequest;
+import com.persons.finder.exception.BusinessException;
+import com.persons.finder.infrastructure.location.LocationUpdate;
+import com.persons.finder.infrastructure.location.LocationWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Applies an NDJSON stream of {"id", "latitude", "longitude"} records.
+ * The body is read token by token, so memory stays at one batch however large the upload is;
+ * each batch is coalesced per id (last record wins) and written as one JDBC batch in its own transaction.
+ */
+@Slf4j
+@Service
+public class LocationBatchService {
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final LocationWriter locationWriter;
+    private final int batchSize;
+
+    public LocationBatchService(ObjectMapper objectMapper,
+                                Validator validator,
+                                LocationWriter locationWriter,
+                                @Value("${app.location.import.batch-size:1000}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.locationWriter = locationWriter;
+        this.batchSize = batchSize;
+    }
+
+    public LocationBatchResult importLocations(InputStream body) throws IOException {
+        long startTime = System.currentTimeMillis();
+        Progress progress = new Progress();
+        Map<Long, Pending> batch = new LinkedHashMap<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                progress.received++;
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    progress.reject("expected a JSON object");
+                    continue;
+                }
+                LocationUpdate update = readRecord(parser, progress);
+                if (update == null) {
+                    continue;
+                }
+                batch.merge(update.id(), new Pending(update, 1),
+                        (previous, latest) -> new Pending(latest.update(), previous.records() + 1));
+                if (batch.size() >= batchSize) {
+                    write(batch, progress);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // records before the malformed one are kept
+            write(batch, progress);
+            throw new BusinessException("Malformed NDJSON after record " + progress.received + ": "
+                    + e.getOriginalMessage() + " (" + progress.updated + " updates applied)");
+        }
+        write(batch, progress);
+
+        log.info("Location batch applied: {} received, {} updated, {} unknown ids, {} rejected in {}ms",
+                progress.received, progress.updated, progress.notFound, progress.rejected,
+                System.currentTimeMillis() - startTime);
+        return new LocationBatchResult(progress.received, progress.updated, progress.notFound, progress.rejected,
+                progress.errors);
+    }
+
+    private LocationUpdate readRecord(JsonParser parser, Progress progress) throws IOException {
+        Long id = null;
+        Double latitude = null;
+        Double longitude = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id" -> id = value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : null;
+                case "latitude" -> latitude = value.isNumeric() ? parser.getDoubleValue() : null;
+                case "longitude" -> longitude = value.isNumeric() ? parser.getDoubleValue() : null;
+                default -> {
+                }
+            }
+            // an object or array value is never a valid field; its members must not be read as this record's
+            parser.skipChildren();
+        }
+        if (id == null) {
+            progress.reject("id is required");
+            return null;
+        }
+        // same constraints as PUT /{id}/location
+        Set<ConstraintViolation<LocationRequest>> violations = validator.validate(new LocationRequest(latitude, longitude));
+        if (!violations.isEmpty()) {
+            progress.reject("id " + id + ": " + violations.iterator().next().getMessage());
+            return null;
+        }
+        return new LocationUpdate(id, latitude, longitude);
+    }
+
+    private void write(Map<Long, Pending> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Pending> pending = new ArrayList<>(batch.values());
+        batch.clear();
+        boolean[] written = locationWriter.write(pending.stream().map(Pending::update).toList());
+        for (int i = 0; i < written.length; i++) {
+            if (written[i]) {
+                progress.updated += pending.get(i).records();
+            } else {
+                progress.notFound += pending.get(i).records();
+            }
+        }
+    }
+
+    private record Pending(LocationUpdate update, int records) {
+    }
+
+    private static final class Progress {
+        private long received;
+        private long updated;
+        private long notFound;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        void reject(String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("record " + received + ": " + reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.persons.finder.application;
+
+import com.persons.finder.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a nearby scroll: the (distance, id) of the last row returned.
+ * The distance travels as its raw bits so the next page resumes on exactly the same key.
+ */
+record NearbyCursor(double distance, long id) {
+
+    static final NearbyCursor START = new NearbyCursor(-1, Long.MIN_VALUE);
+
+    String encode() {
+        String raw = Long.toHexString(Double.doubleToLongBits(distance)) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static NearbyCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            double distance = Double.longBitsToDouble(Long.parseUnsignedLong(raw.substring(0, separator), 16));
+            return new NearbyCursor(distance, Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid cursor");
+        }
+    }
+}
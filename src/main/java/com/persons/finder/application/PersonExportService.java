@@ -0,0 +1,86 @@
+package com.persons.finder.application;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persons.finder.domain.repository.PersonReadRepository;
+import com.persons.finder.dto.PersonFields;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.exception.BusinessException;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Streams persons as NDJSON, one {@link PersonResponse} per line, straight from a JDBC cursor to the response.
+ * Rows are written as they are read and the output is flushed every flush-rows rows; a slow client blocks
+ * the write, which in turn stops the cursor, so memory stays flat whatever the size of the export.
+ */
+@Slf4j
+@Service
+public class PersonExportService {
+
+    private final PersonReadRepository personReadRepository;
+    private final ObjectMapper objectMapper;
+    private final int flushRows;
+
+    public PersonExportService(PersonReadRepository personReadRepository,
+                               ObjectMapper objectMapper,
+                               @Value("${app.export.fetch-size:1000}") int flushRows) {
+        this.personReadRepository = personReadRepository;
+        this.objectMapper = objectMapper;
+        this.flushRows = flushRows;
+    }
+
+    /**
+     * Checks the region parameters up front, so a bad request fails before the response is committed.
+     */
+    public void validateRegion(Double lat, Double lon, Double radiusKm) {
+        boolean any = lat != null || lon != null || radiusKm != null;
+        boolean all = lat != null && lon != null && radiusKm != null;
+        if (any && !all) {
+            throw new BusinessException("lat, lon and radius must be given together, or not at all to export everyone");
+        }
+        if (radiusKm != null && radiusKm <= 0) {
+            throw new BusinessException("radius must be positive");
+        }
+        if (all) {
+            SearchCenter.validate(lat, lon);
+        }
+    }
+
+    public void export(Double lat, Double lon, Double radiusKm, PersonFields fields, OutputStream out) throws IOException {
+        long startTime = System.currentTimeMillis();
+        long[] rows = new long[1];
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Consumer<PersonResponse> sink = person -> {
+                try {
+                    generator.writeObject(person);
+                    generator.writeRaw('\n');
+                    if (++rows[0] % flushRows == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    // typically the client went away; abandoning the cursor releases the connection
+                    throw new UncheckedIOException(e);
+                }
+            };
+            if (lat == null) {
+                personReadRepository.streamAll(fields, sink);
+            } else {
+                personReadRepository.streamNearby(lat, lon, radiusKm,
+                        GeoUtils.calculateBoundingBox(lat, lon, radiusKm), fields, sink);
+            }
+        } catch (UncheckedIOException e) {
+            log.info("Export aborted after {} rows: {}", rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+        log.info("Exported {} persons in {}ms", rows[0], System.currentTimeMillis() - startTime);
+    }
+}
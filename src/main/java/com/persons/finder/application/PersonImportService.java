@@ -0,0 +1,363 @@
+package com.persons.finder.application;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.persons.finder.domain.model.BioStatus;
+import com.persons.finder.domain.repository.PersonRepository;
+import com.persons.finder.dto.ImportJobResponse;
+import com.persons.finder.dto.ImportJobResponse.ImportState;
+import com.persons.finder.dto.PersonRequest;
+import com.persons.finder.exception.SecurityValidationException;
+import com.persons.finder.infrastructure.security.SecurityManager;
+import com.persons.finder.infrastructure.spatial.NearbyTileCache;
+import com.persons.finder.infrastructure.spatial.PersonSpatialIndex;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import com.persons.finder.infrastructure.util.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk person import from NDJSON or CSV.
+ * The upload is spooled to a temp file and the caller gets a job id at once. Rows are validated like
+ * {@link PersonService#createPerson}, inserted in JDBC batches with a PENDING bio, and the bios are then
+ * generated by a small worker pool whose upstream calls are capped at app.import.enrichment.qps across all jobs.
+ * Jobs are tracked in memory on the node that accepted them, and forgotten app.import.job-retention-minutes after
+ * they finish.
+ */
+@Slf4j
+@Service
+public class PersonImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int MAX_REPORTED_ERRORS = 20;
+    private static final String INSERT_PERSON = "INSERT INTO persons (name, job_title, hobbies, bio_status, " +
+            "latitude, longitude, cell_id, version, created_at, updated_at) VALUES (?, ?, ?, 'PENDING', ?, ?, ?, 0, ?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final Validator validator;
+    private final SecurityManager securityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PersonRepository personRepository;
+    private final PersonSpatialIndex spatialIndex;
+    private final NearbyTileCache nearbyTileCache;
+    private final BioEnrichmentService bioEnrichmentService;
+    private final int batchSize;
+    private final int enrichmentConcurrency;
+    private final RateLimiter upstreamLimiter;
+    private final Duration jobRetention;
+
+    private final Map<Long, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobIds = new AtomicLong();
+    private final ExecutorService importExecutor;
+    private final ExecutorService enrichmentExecutor;
+
+    public PersonImportService(ObjectMapper objectMapper,
+                               Validator validator,
+                               SecurityManager securityManager,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               PersonRepository personRepository,
+                               PersonSpatialIndex spatialIndex,
+                               NearbyTileCache nearbyTileCache,
+                               BioEnrichmentService bioEnrichmentService,
+                               @Value("${app.import.batch-size:1000}") int batchSize,
+                               @Value("${app.import.enrichment.concurrency:4}") int enrichmentConcurrency,
+                               @Value("${app.import.enrichment.qps:10}") double enrichmentQps,
+                               @Value("${app.import.job-retention-minutes:60}") long jobRetentionMinutes) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.securityManager = securityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.personRepository = personRepository;
+        this.spatialIndex = spatialIndex;
+        this.nearbyTileCache = nearbyTileCache;
+        this.bioEnrichmentService = bioEnrichmentService;
+        this.batchSize = batchSize;
+        this.enrichmentConcurrency = enrichmentConcurrency;
+        this.upstreamLimiter = new RateLimiter(enrichmentQps);
+        this.jobRetention = Duration.ofMinutes(jobRetentionMinutes);
+        this.importExecutor = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("PersonImport-"));
+        this.enrichmentExecutor = Executors.newFixedThreadPool(enrichmentConcurrency,
+                new CustomizableThreadFactory("ImportBioGen-"));
+    }
+
+    @PreDestroy
+    void stop() {
+        importExecutor.shutdownNow();
+        enrichmentExecutor.shutdownNow();
+    }
+
+    public ImportJobResponse startImport(InputStream body, Format format) throws IOException {
+        Path upload = Files.createTempFile("person-import-", "." + format.name().toLowerCase());
+        try {
+            Files.copy(body, upload, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        ImportJob job = new ImportJob(jobIds.incrementAndGet(), format);
+        jobs.put(job.id, job);
+        log.info("Import job {} accepted: {} bytes of {}", job.id, Files.size(upload), format);
+        importExecutor.execute(() -> runImport(job, upload));
+        return job.toResponse();
+    }
+
+    public ImportJobResponse getJob(long id) {
+        ImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Import job not found");
+        }
+        return job.toResponse();
+    }
+
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    void evictFinishedJobs() {
+        Instant cutoff = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private void runImport(ImportJob job, Path upload) {
+        job.state = ImportState.INSERTING;
+        try (InputStream in = Files.newInputStream(upload); MappingIterator<PersonRequest> rows = reader(job.format).readValues(in)) {
+            List<PersonRequest> batch = new ArrayList<>(batchSize);
+            while (true) {
+                PersonRequest row;
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    job.received.incrementAndGet();
+                    row = rows.nextValue();
+                } catch (IOException | RuntimeException e) {
+                    // the iterator skips to the next record; a body that cannot be tokenized ends the loop
+                    job.reject("unreadable record: " + e.getMessage());
+                    if (e instanceof JsonParseException) {
+                        break;
+                    }
+                    continue;
+                }
+                if (row == null) {
+                    // a literal null line in NDJSON
+                    job.reject("empty record");
+                    continue;
+                }
+                String error = validate(row);
+                if (error != null) {
+                    job.reject(error);
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    insert(job, batch);
+                    batch.clear();
+                }
+            }
+            insert(job, batch);
+        } catch (Exception e) {
+            log.error("Import job {} failed: {}", job.id, e.getMessage());
+            job.reject("import aborted: " + e.getMessage());
+            job.finish(ImportState.FAILED);
+            return;
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                log.warn("Could not delete import upload {}", upload);
+            }
+        }
+        log.info("Import job {} inserted {} persons, rejected {}", job.id, job.inserted.get(), job.rejected.get());
+        enrich(job);
+    }
+
+    private ObjectReader reader(Format format) {
+        if (format == Format.CSV) {
+            return csvMapper.readerFor(PersonRequest.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        }
+        return objectMapper.readerFor(PersonRequest.class);
+    }
+
+    private String validate(PersonRequest row) {
+        Set<ConstraintViolation<PersonRequest>> violations = validator.validate(row);
+        if (!violations.isEmpty()) {
+            return row.name() + ": " + violations.iterator().next().getMessage();
+        }
+        try {
+            securityManager.validateInput(row.hobbies());
+        } catch (SecurityValidationException e) {
+            return row.name() + ": " + e.getMessage();
+        }
+        return null;
+    }
+
+    private void insert(ImportJob job, List<PersonRequest> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        long[] ids = transactionTemplate.execute(status -> jdbcTemplate.execute((ConnectionCallback<long[]>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_PERSON, new String[]{"id"})) {
+                for (PersonRequest row : batch) {
+                    ps.setString(1, row.name());
+                    ps.setString(2, row.jobTitle());
+                    ps.setString(3, row.hobbies());
+                    ps.setDouble(4, row.latitude());
+                    ps.setDouble(5, row.longitude());
+                    ps.setLong(6, GeoUtils.cellId(row.latitude(), row.longitude()));
+                    ps.setTimestamp(7, now);
+                    ps.setTimestamp(8, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                long[] generated = new long[batch.size()];
+                int count = 0;
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated[count++] = keys.getLong(1);
+                    }
+                }
+                return Arrays.copyOf(generated, count);
+            }
+        }));
+        for (int i = 0; i < ids.length; i++) {
+            spatialIndex.put(ids[i], batch.get(i).latitude(), batch.get(i).longitude());
+            nearbyTileCache.invalidate(batch.get(i).latitude(), batch.get(i).longitude());
+        }
+        job.addInserted(ids);
+    }
+
+    private void enrich(ImportJob job) {
+        job.state = ImportState.ENRICHING;
+        AtomicInteger remainingWorkers = new AtomicInteger(enrichmentConcurrency);
+        for (int i = 0; i < enrichmentConcurrency; i++) {
+            enrichmentExecutor.execute(() -> {
+                try {
+                    long id;
+                    while ((id = job.nextToEnrich()) >= 0) {
+                        upstreamLimiter.acquire();
+                        BioStatus status = personRepository.findById(id)
+                                .map(bioEnrichmentService::generate)
+                                .orElse(BioStatus.FAILED);
+                        (status == BioStatus.READY ? job.biosReady : job.biosFailed).incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    if (remainingWorkers.decrementAndGet() == 0) {
+                        job.finish(job.biosPending() == 0 ? ImportState.COMPLETED : ImportState.FAILED);
+                        log.info("Import job {} finished enrichment: {} ready, {} failed",
+                                job.id, job.biosReady.get(), job.biosFailed.get());
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class ImportJob {
+        private final long id;
+        private final Format format;
+        private final Instant startedAt = Instant.now();
+        private volatile Instant finishedAt;
+        private volatile ImportState state = ImportState.QUEUED;
+
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong inserted = new AtomicLong();
+        private final AtomicLong biosReady = new AtomicLong();
+        private final AtomicLong biosFailed = new AtomicLong();
+        private final List<String> errors = new ArrayList<>();
+
+        // ids inserted so far; written by the import thread, drained by the enrichment workers, released on finish
+        private long[] ids = new long[1024];
+        private final AtomicInteger nextToEnrich = new AtomicInteger();
+
+        private ImportJob(long id, Format format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        private void reject(String reason) {
+            rejected.incrementAndGet();
+            synchronized (errors) {
+                if (errors.size() < MAX_REPORTED_ERRORS) {
+                    errors.add("record " + received.get() + ": " + reason);
+                }
+            }
+        }
+
+        private void addInserted(long[] batch) {
+            int size = (int) inserted.get();
+            if (size + batch.length > ids.length) {
+                ids = Arrays.copyOf(ids, Math.max(ids.length * 2, size + batch.length));
+            }
+            System.arraycopy(batch, 0, ids, size, batch.length);
+            inserted.addAndGet(batch.length);
+        }
+
+        private long nextToEnrich() {
+            int index = nextToEnrich.getAndIncrement();
+            return index < inserted.get() ? ids[index] : -1;
+        }
+
+        private long biosPending() {
+            return inserted.get() - biosReady.get() - biosFailed.get();
+        }
+
+        private void finish(ImportState finalState) {
+            ids = null;
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        private ImportJobResponse toResponse() {
+            List<String> reported;
+            synchronized (errors) {
+                reported = List.copyOf(errors);
+            }
+            return new ImportJobResponse(id, state, received.get(), inserted.get(), rejected.get(),
+                    biosReady.get(), biosFailed.get(), biosPending(), reported, startedAt, finishedAt);
+        }
+    }
+}
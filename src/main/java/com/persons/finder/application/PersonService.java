@@ -1,62 +1,218 @@
 package com.persons.finder.application;
 
+import com.persons.finder.domain.model.BioStatus;
 import com.persons.finder.domain.model.Location;
 import com.persons.finder.domain.model.Person;
 import com.persons.finder.domain.service.BioGenerator;
+import com.persons.finder.dto.CursorSlice;
 import com.persons.finder.dto.LocationRequest;
+import com.persons.finder.dto.PersonFields;
 import com.persons.finder.dto.PersonRequest;
 import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.exception.BusinessException;
 import com.persons.finder.mapper.PersonMapper;
+import com.persons.finder.domain.repository.PersonReadRepository;
+import com.persons.finder.domain.repository.PersonReadRepository.NearbyRow;
 import com.persons.finder.domain.repository.PersonRepository;
+import com.persons.finder.infrastructure.location.LocationUpdateBuffer;
 import com.persons.finder.infrastructure.security.SecurityManager;
+import com.persons.finder.infrastructure.spatial.NearbyTileCache;
+import com.persons.finder.infrastructure.spatial.PersonSpatialIndex;
 import com.persons.finder.infrastructure.util.GeoUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PersonService {
 
+    private static final int MAX_NEAREST = 1000;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final double HALF_EARTH_CIRCUMFERENCE_KM = 20_016;
+
     private final PersonRepository personRepository;
+    private final PersonReadRepository personReadRepository;
     private final BioGenerator bioGenerator;
     private final PersonMapper personMapper;
     private final SecurityManager securityManager;
+    private final PersonSpatialIndex spatialIndex;
+    private final NearbyTileCache nearbyTileCache;
+    private final BioEnrichmentService bioEnrichmentService;
+    private final LocationUpdateBuffer locationUpdateBuffer;
+    private final MeterRegistry meterRegistry;
 
     @Transactional(readOnly = true)
     public Slice<PersonResponse> findNearby(double lat, double lon, double radiusKm, Pageable pageable) {
+        return findNearby(lat, lon, radiusKm, pageable, PersonFields.ALL);
+    }
+
+    /**
+     * Nearby search returning only the requested fields; the rows are read with plain JDBC,
+     * so unselected columns such as bio are never fetched. Answers come from {@link NearbyTileCache}
+     * when enabled, filtered and ordered for this exact query.
+     */
+    @Transactional(readOnly = true)
+    public Slice<PersonResponse> findNearby(double lat, double lon, double radiusKm, Pageable pageable, PersonFields fields) {
+        SearchCenter.validate(lat, lon);
         log.info("Searching for persons near ({}, {}) within {}km, page: {}", lat, lon, radiusKm, pageable.getPageNumber());
-        long startTime = System.currentTimeMillis();
-        var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+        return nearbyTileCache.get(lat, lon, radiusKm, pageable, fields, this::searchNearby);
+    }
 
+    private Slice<PersonResponse> searchNearby(double lat, double lon, double radiusKm, Pageable pageable, PersonFields fields) {
+        long startTime = System.currentTimeMillis();
         Pageable distancePageable = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
-        Slice<PersonResponse> results = personRepository.findNearbyEfficiently(
-                lat, lon, radiusKm, box.minLat(), box.maxLat(), box.minLon(), box.maxLon(), distancePageable
-        ).map(personMapper::toResponse);
+
+        int size = distancePageable.getPageSize();
+        // one extra row tells us whether a next slice exists
+        List<PersonResponse> content;
+        boolean hasNext;
+        boolean indexed = spatialIndex.isReady();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (indexed) {
+            long[] ids = meterRegistry.timer("persons.nearby.phase", "phase", "index").record(() ->
+                    spatialIndex.findWithin(lat, lon, radiusKm, (int) distancePageable.getOffset(), size + 1));
+            hasNext = ids.length > size;
+            // rows are mapped as they are read, so the db phase includes building the responses
+            content = meterRegistry.timer("persons.nearby.phase", "phase", "db").record(() ->
+                    personReadRepository.findAllById(Arrays.copyOf(ids, Math.min(ids.length, size)), fields));
+        } else {
+            var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+            List<PersonResponse> rows = meterRegistry.timer("persons.nearby.phase", "phase", "db").record(() ->
+                    personReadRepository.findNearby(lat, lon, radiusKm, box, distancePageable.getOffset(), size + 1, fields));
+            hasNext = rows.size() > size;
+            content = rows.subList(0, Math.min(rows.size(), size));
+        }
+        sample.stop(meterRegistry.timer("persons.nearby", "source", indexed ? "index" : "database"));
+        Slice<PersonResponse> results = new SliceImpl<>(content, distancePageable, hasNext);
 
         log.debug("Found {} results in {}ms", results.getNumberOfElements(), System.currentTimeMillis() - startTime);
         return results;
     }
 
+    /**
+     * Keyset alternative to {@link #findNearby}: resumes strictly after the cursor instead of skipping rows.
+     */
+    @Transactional(readOnly = true)
+    public CursorSlice<PersonResponse> scrollNearby(double lat, double lon, double radiusKm, int size, String cursor) {
+        SearchCenter.validate(lat, lon);
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new BusinessException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        NearbyCursor after = NearbyCursor.decode(cursor);
+        log.info("Scrolling persons near ({}, {}) within {}km after {}", lat, lon, radiusKm, after);
+        long startTime = System.currentTimeMillis();
+
+        List<PersonResponse> content;
+        boolean hasNext;
+        NearbyCursor last = null;
+        if (spatialIndex.isReady()) {
+            var neighbors = spatialIndex.findWithinAfter(lat, lon, radiusKm, after.distance(), after.id(), size + 1);
+            hasNext = neighbors.ids().length > size;
+            int count = Math.min(neighbors.ids().length, size);
+            content = loadInOrder(Arrays.copyOf(neighbors.ids(), count));
+            if (count > 0) {
+                last = new NearbyCursor(neighbors.distances()[count - 1], neighbors.ids()[count - 1]);
+            }
+        } else {
+            var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+            List<NearbyRow> rows = personReadRepository.findNearbyAfter(
+                    lat, lon, radiusKm, box, after.distance(), after.id(), size + 1, PersonFields.ALL);
+            hasNext = rows.size() > size;
+            List<NearbyRow> page = rows.subList(0, Math.min(rows.size(), size));
+            content = page.stream().map(NearbyRow::person).collect(Collectors.toList());
+            if (!page.isEmpty()) {
+                NearbyRow tail = page.get(page.size() - 1);
+                last = new NearbyCursor(tail.distance(), tail.person().id());
+            }
+        }
+
+        log.debug("Scrolled {} results in {}ms", content.size(), System.currentTimeMillis() - startTime);
+        return new CursorSlice<>(content, hasNext ? last.encode() : null, hasNext);
+    }
+
+    @Transactional(readOnly = true)
+    public List<PersonResponse> findNearest(double lat, double lon, int k) {
+        SearchCenter.validate(lat, lon);
+        if (k < 1 || k > MAX_NEAREST) {
+            throw new BusinessException("k must be between 1 and " + MAX_NEAREST);
+        }
+        log.info("Searching for the {} persons nearest to ({}, {})", k, lat, lon);
+        long startTime = System.currentTimeMillis();
+
+        List<PersonResponse> results;
+        if (spatialIndex.isReady()) {
+            results = loadInOrder(spatialIndex.findNearest(lat, lon, k));
+        } else {
+            // index still loading: widen the radius until the bounding-box query yields k rows
+            double radiusKm = 10;
+            while (true) {
+                var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+                results = personReadRepository.findNearby(lat, lon, radiusKm, box, 0, k, PersonFields.ALL);
+                if (results.size() >= k || radiusKm >= HALF_EARTH_CIRCUMFERENCE_KM) {
+                    break;
+                }
+                radiusKm = Math.min(radiusKm * 4, HALF_EARTH_CIRCUMFERENCE_KM);
+            }
+        }
+
+        log.debug("Found {} nearest results in {}ms", results.size(), System.currentTimeMillis() - startTime);
+        return results;
+    }
+
+    private List<PersonResponse> loadInOrder(long[] ids) {
+        return personReadRepository.findAllById(ids, PersonFields.ALL);
+    }
+
     @Transactional
     public PersonResponse updateLocation(Long id, LocationRequest request) {
         Person person = personRepository.findById(id)
                 .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
                         org.springframework.http.HttpStatus.NOT_FOUND, "Person not found"));
 
+        // the entity listener drops the tiles around the new coordinates, but only we know the old ones
+        nearbyTileCache.invalidate(person.getLocation());
         person.setLocation(new Location(request.latitude(), request.longitude()));
 
         // return DTO
         return personMapper.toResponse(person);
     }
 
-    @Transactional
+    /**
+     * High-frequency variant of {@link #updateLocation}: the update is coalesced with others for the same
+     * person and written in the next batch, without loading the entity. The future completes on commit.
+     */
+    public CompletableFuture<Void> bufferLocation(Long id, LocationRequest request) {
+        return locationUpdateBuffer.submit(id, request.latitude(), request.longitude());
+    }
+
+    /**
+     * Generates the bio, then saves. Not transactional as a whole: the save runs in its own short transaction,
+     * so no database connection is held while the upstream model responds.
+     */
     public PersonResponse createPerson(PersonRequest request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return doCreatePerson(request);
+        } finally {
+            sample.stop(meterRegistry.timer("persons.create", "mode", "sync"));
+        }
+    }
+
+    private PersonResponse doCreatePerson(PersonRequest request) {
         String name = request.name();
         String hobbies = request.hobbies();
         log.info("Creating new person profile for: {}", name);
@@ -71,10 +227,60 @@ public class PersonService {
                 .location(new Location(request.latitude(), request.longitude()))
                 .build();
 
-        String bio = bioGenerator.generateBio(person);
+        // the caller is waiting for this response, so an overloaded upstream yields the fallback bio
+        String bio = bioGenerator.generateBioOrFallback(person);
         person.setBio(bio);
+        person.setBioStatus(BioStatus.READY);
 
         Person saved = personRepository.save(person);
         return personMapper.toResponse(saved);
     }
+
+    /**
+     * Persists the person immediately with a PENDING bio and hands the AI call to the bio executor,
+     * so no database connection is held while the upstream model responds.
+     */
+    public PersonResponse createPersonAsync(PersonRequest request) {
+        log.info("Creating new person profile with deferred bio for: {}", request.name());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            securityManager.validateInput(request.hobbies());
+
+            Person person = Person.builder()
+                    .name(request.name())
+                    .jobTitle(request.jobTitle())
+                    .hobbies(request.hobbies())
+                    .location(new Location(request.latitude(), request.longitude()))
+                    .bioStatus(BioStatus.PENDING)
+                    .build();
+
+            Person saved = personRepository.save(person);
+            bioEnrichmentService.enqueue(saved);
+            return personMapper.toResponse(saved);
+        } finally {
+            sample.stop(meterRegistry.timer("persons.create", "mode", "async"));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public PersonResponse getPerson(Long id) {
+        return personRepository.findById(id)
+                .map(personMapper::toResponse)
+                .orElseThrow(() -> new org.springframework.web.server.ResponseStatusException(
+                        org.springframework.http.HttpStatus.NOT_FOUND, "Person not found"));
+    }
+
+    /**
+     * Completes with the person once its bio is READY or FAILED.
+     */
+    public CompletableFuture<PersonResponse> awaitBio(Long id) {
+        return bioEnrichmentService.awaitBio(id, getPerson(id));
+    }
+
+    /**
+     * Releases a future returned by {@link #awaitBio} whose caller gave up waiting.
+     */
+    public void stopAwaitingBio(Long id, CompletableFuture<PersonResponse> future) {
+        bioEnrichmentService.stopAwaiting(id, future);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package com.persons.finder.application;
+
+import com.persons.finder.domain.repository.PersonReadRepository;
+import com.persons.finder.domain.repository.PersonReadRepository.NearbyRow;
+import com.persons.finder.dto.PersonFields;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.exception.BusinessException;
+import com.persons.finder.infrastructure.spatial.PersonSpatialIndex;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import com.persons.finder.infrastructure.util.GeoUtils.BoundingBox;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Arrays;
+
+/**
+ * Nearby search as a {@link Flux}, nearest first. Rows are produced on demand: the subscriber's requests
+ * pull one chunk of ids from the spatial index into a query at a time, or, when the index is not ready, one
+ * keyset page after the last (distance, id) sent. Each chunk is a short query, so a slow client holds no
+ * connection between chunks and at most about one chunk in memory. All blocking work runs on the
+ * bounded-elastic scheduler, never on the subscribing thread.
+ */
+@Slf4j
+@Service
+public class PersonStreamService {
+
+    private static final int MAX_LIMIT = 100_000;
+
+    private final PersonReadRepository personReadRepository;
+    private final PersonSpatialIndex spatialIndex;
+    private final int chunkSize;
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+
+    public PersonStreamService(PersonReadRepository personReadRepository,
+                               PersonSpatialIndex spatialIndex,
+                               @Value("${app.stream.chunk-size:500}") int chunkSize) {
+        this.personReadRepository = personReadRepository;
+        this.spatialIndex = spatialIndex;
+        this.chunkSize = chunkSize;
+    }
+
+    public Flux<PersonResponse> streamNearby(double lat, double lon, double radiusKm, int limit, PersonFields fields) {
+        SearchCenter.validate(lat, lon);
+        if (radiusKm <= 0) {
+            throw new BusinessException("radius must be positive");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        Flux<PersonResponse> persons = spatialIndex.isReady()
+                ? fromIndex(lat, lon, radiusKm, limit, fields)
+                : fromKeyset(lat, lon, radiusKm, limit, fields);
+        return persons.doOnCancel(() -> log.debug("Nearby stream cancelled by the client"));
+    }
+
+    private Flux<PersonResponse> fromIndex(double lat, double lon, double radiusKm, int limit, PersonFields fields) {
+        return Mono.fromCallable(() -> spatialIndex.findWithin(lat, lon, radiusKm, 0, limit))
+                .subscribeOn(scheduler)
+                .flatMapMany(ids -> Flux.range(0, (ids.length + chunkSize - 1) / chunkSize)
+                        // prefetch 1: the next chunk is queried only once the subscriber asks for more
+                        .concatMap(chunk -> Mono.fromCallable(() -> personReadRepository.findAllById(
+                                        Arrays.copyOfRange(ids, chunk * chunkSize, Math.min(ids.length, (chunk + 1) * chunkSize)),
+                                        fields))
+                                .subscribeOn(scheduler), 1)
+                        .flatMapIterable(persons -> persons, 1));
+    }
+
+    private Flux<PersonResponse> fromKeyset(double lat, double lon, double radiusKm, int limit, PersonFields fields) {
+        var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+        return pagesAfter(lat, lon, radiusKm, box, NearbyCursor.START.distance(), NearbyCursor.START.id(), limit, fields)
+                .map(NearbyRow::person);
+    }
+
+    // the next page is only queried once the subscriber has taken every row of this one
+    private Flux<NearbyRow> pagesAfter(double lat, double lon, double radiusKm, BoundingBox box,
+                                       double afterDistance, long afterId, int remaining, PersonFields fields) {
+        int size = Math.min(chunkSize, remaining);
+        return Mono.fromCallable(() -> personReadRepository.findNearbyAfter(
+                        lat, lon, radiusKm, box, afterDistance, afterId, size, fields))
+                .subscribeOn(scheduler)
+                .flatMapMany(rows -> {
+                    Flux<NearbyRow> page = Flux.fromIterable(rows);
+                    if (rows.size() < size || rows.size() == remaining) {
+                        return page;
+                    }
+                    NearbyRow tail = rows.get(rows.size() - 1);
+                    return page.concatWith(Flux.defer(() -> pagesAfter(lat, lon, radiusKm, box,
+                            tail.distance(), tail.person().id(), remaining - rows.size(), fields)));
+                });
+    }
+}
@@ -0,0 +1,23 @@
+package com.persons.finder.application;
+
+import com.persons.finder.exception.BusinessException;
+
+/**
+ * Range check for the center of a location query. Out-of-range centers are rejected up front: past a pole
+ * the bounding box comes out inverted, which no location backend can scan.
+ */
+final class SearchCenter {
+
+    private SearchCenter() {
+    }
+
+    static void validate(double lat, double lon) {
+        // written so that NaN fails too
+        if (!(lat >= -90 && lat <= 90)) {
+            throw new BusinessException("Latitude must be between -90 and 90");
+        }
+        if (!(lon >= -180 && lon <= 180)) {
+            throw new BusinessException("Longitude must be between -180 and 180");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.persons.finder.application;
+
+import com.persons.finder.domain.model.SecurityPattern;
+import com.persons.finder.domain.repository.SecurityPatternRepository;
+import com.persons.finder.domain.repository.SecurityPatternVersionRepository;
+import com.persons.finder.dto.SecurityPatternRequest;
+import com.persons.finder.dto.SecurityPatternResponse;
+import com.persons.finder.exception.BusinessException;
+import com.persons.finder.infrastructure.security.SecurityPatternRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+
+/**
+ * Runtime administration of the security blacklist. Every write bumps the shared change version in the
+ * same transaction; this node recompiles after commit and other nodes pick the change up on their next poll.
+ * The version row is created once at startup, so concurrent writes only ever increment it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SecurityPatternService {
+
+    private final SecurityPatternRepository patternRepository;
+    private final SecurityPatternVersionRepository versionRepository;
+    private final SecurityPatternRegistry patternRegistry;
+
+    @PostConstruct
+    void createVersionRow() {
+        versionRepository.insertIfAbsent();
+    }
+
+    @Transactional(readOnly = true)
+    public List<SecurityPatternResponse> listPatterns() {
+        return patternRepository.findAll().stream().map(SecurityPatternService::toResponse).toList();
+    }
+
+    @Transactional
+    public SecurityPatternResponse addPattern(SecurityPatternRequest request) {
+        String pattern = request.pattern().trim();
+        if (patternRepository.existsByPattern(pattern)) {
+            throw new BusinessException("Pattern already exists: " + pattern);
+        }
+        SecurityPattern saved = patternRepository.save(SecurityPattern.builder()
+                .pattern(pattern)
+                .type(request.type())
+                .description(request.description())
+                .build());
+        bumpVersion();
+        log.info("Security pattern added: [{}] {}", saved.getType(), saved.getPattern());
+        return toResponse(saved);
+    }
+
+    @Transactional
+    public void deletePattern(Long id) {
+        SecurityPattern pattern = patternRepository.findById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Security pattern not found"));
+        patternRepository.delete(pattern);
+        bumpVersion();
+        log.info("Security pattern removed: [{}] {}", pattern.getType(), pattern.getPattern());
+    }
+
+    public SecurityPatternRegistry.SecurityPatternStatus reload() {
+        patternRegistry.reload();
+        return patternRegistry.status();
+    }
+
+    public SecurityPatternRegistry.SecurityPatternStatus status() {
+        return patternRegistry.status();
+    }
+
+    private void bumpVersion() {
+        versionRepository.increment();
+    }
+
+    private static SecurityPatternResponse toResponse(SecurityPattern pattern) {
+        return new SecurityPatternResponse(pattern.getId(), pattern.getPattern(), pattern.getType(), pattern.getDescription());
+    }
+}
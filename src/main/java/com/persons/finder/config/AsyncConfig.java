@@ -1,5 +1,7 @@
 package com.persons.finder.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -11,6 +13,15 @@ import java.util.concurrent.Executor;
 @EnableAsync
 public class AsyncConfig implements AsyncConfigurer {
 
+    @Value("${app.bio.executor.core-pool-size:4}")
+    private int bioCorePoolSize;
+
+    @Value("${app.bio.executor.max-pool-size:8}")
+    private int bioMaxPoolSize;
+
+    @Value("${app.bio.executor.queue-capacity:1000}")
+    private int bioQueueCapacity;
+
     @Override
     public Executor getAsyncExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -21,4 +32,20 @@ public class AsyncConfig implements AsyncConfigurer {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Dedicated, bounded pool for AI bio generation so slow upstream calls never hold request threads
+     * or database connections. Submissions beyond the queue capacity are rejected.
+     */
+    @Bean(name = "bioExecutor")
+    public ThreadPoolTaskExecutor bioExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(bioCorePoolSize);
+        executor.setMaxPoolSize(bioMaxPoolSize);
+        executor.setQueueCapacity(bioQueueCapacity);
+        executor.setThreadNamePrefix("BioGen-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(20);
+        return executor;
+    }
 }
@@ -1,27 +1,111 @@
 package com.persons.finder.config;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RestTemplate for the AI upstream on a pooled Apache HttpClient: connections are kept alive and reused,
+ * so a request normally skips the TCP and TLS handshake. Pool usage is published as
+ * httpcomponents.httpclient.pool.* and new connections as httpcomponents.httpclient.connections.opened.
+ */
 @Configuration
 public class RestTemplateConfig {
-    @Value("${rest-template.connect-timeout:5000}")
-    private int connectTimeout;
 
-    @Value("${rest-template.read-timeout:15000}")
-    private int readTimeout;
+    private static final String POOL_NAME = "ai";
 
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+    public RestTemplate restTemplate(MeterRegistry meterRegistry,
+                                     @Value("${rest-template.connect-timeout:5000}") int connectTimeout,
+                                     @Value("${rest-template.read-timeout:15000}") int readTimeout,
+                                     @Value("${rest-template.pool.max-total:32}") int maxTotal,
+                                     @Value("${rest-template.pool.max-per-route:16}") int maxPerRoute,
+                                     @Value("${rest-template.pool.acquire-timeout:2000}") int acquireTimeout,
+                                     @Value("${rest-template.pool.keep-alive-ms:30000}") long keepAliveMs) {
+        Counter plainOpened = opened(meterRegistry, "http");
+        Counter tlsOpened = opened(meterRegistry, "https");
+        Registry<ConnectionSocketFactory> sockets = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new CountingSocketFactory(PlainConnectionSocketFactory.getSocketFactory(), plainOpened))
+                .register("https", new CountingSocketFactory(SSLConnectionSocketFactory.getSocketFactory(), tlsOpened))
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager(sockets);
+        connectionManager.setMaxTotal(maxTotal);
+        // the AI upstream is a single route, so this is the real cap on parallel upstream connections
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity(2000);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setSocketTimeout(readTimeout)
+                        .setConnectionRequestTimeout(acquireTimeout)
+                        .build())
+                // honour the server's Keep-Alive header, otherwise keep idle connections for keep-alive-ms
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? serverKeepAlive : keepAliveMs;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAliveMs, TimeUnit.MILLISECONDS)
+                .disableCookieManagement()
+                .build();
+
+        return new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+    }
+
+    private static Counter opened(MeterRegistry meterRegistry, String scheme) {
+        return Counter.builder("httpcomponents.httpclient.connections.opened")
+                .description("Connections opened by the pooled HTTP client; stays flat while connections are reused")
+                .tags("httpclient", POOL_NAME, "scheme", scheme)
+                .register(meterRegistry);
+    }
+
+    private record CountingSocketFactory(ConnectionSocketFactory delegate, Counter opened)
+            implements LayeredConnectionSocketFactory {
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            return delegate.createSocket(context);
+        }
 
-        // 使用注入的配置值
-        factory.setConnectTimeout(connectTimeout);
-        factory.setReadTimeout(readTimeout);
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            Socket connected = delegate.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            opened.increment();
+            return connected;
+        }
 
-        return new RestTemplate(factory);
+        // only reached for TLS through a proxy tunnel, where delegate is the SSL factory
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            return ((LayeredConnectionSocketFactory) delegate).createLayeredSocket(socket, target, port, context);
+        }
     }
 }
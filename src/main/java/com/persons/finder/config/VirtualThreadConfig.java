@@ -0,0 +1,34 @@
+package com.persons.finder.config;
+
+import com.persons.finder.infrastructure.util.VirtualThreads;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in (app.virtual-threads.enabled, Java 21+): Tomcat runs every request on its own virtual thread,
+ * so a request blocked on the AI upstream no longer holds one of server.tomcat.threads.max platform threads.
+ * Concurrency is then bounded where the scarce resources are, and excess requests wait there instead of
+ * failing: on the Hikari pool (up to its connection-timeout) for the database and on the AI bulkhead
+ * (up to app.ai.resilience.bulkhead.virtual-threads-max-wait-ms) for the upstream.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(name = "requestExecutor", destroyMethod = "shutdown")
+    public ExecutorService requestExecutor() {
+        log.info("Handling requests on virtual threads");
+        return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandler(ExecutorService requestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(requestExecutor);
+    }
+}
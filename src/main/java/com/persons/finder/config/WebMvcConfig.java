@@ -0,0 +1,79 @@
+package com.persons.finder.config;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.DeferredResultProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    @Value("${app.mvc.async.core-pool-size:4}")
+    private int corePoolSize;
+
+    @Value("${app.mvc.async.max-pool-size:16}")
+    private int maxPoolSize;
+
+    @Value("${app.mvc.async.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.export.request-timeout-minutes:30}")
+    private long exportTimeoutMinutes;
+
+    @Value("${app.stream.request-timeout-minutes:10}")
+    private long streamTimeoutMinutes;
+
+    /**
+     * Runs StreamingResponseBody exports off the request threads. The bio executor bean stops Spring Boot
+     * from creating its default applicationTaskExecutor, which MVC would otherwise use.
+     */
+    @Bean(name = "mvcAsyncExecutor")
+    public ThreadPoolTaskExecutor mvcAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(maxPoolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("MvcAsync-");
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor());
+        // StreamingResponseBody is the only Callable-based async return here, so only exports get the long
+        // timeout; DeferredResult and CompletableFuture responses keep their own or the container default
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                ((AsyncWebRequest) request).setTimeout(Duration.ofMinutes(exportTimeoutMinutes).toMillis());
+            }
+        });
+        // Spring streams a returned Flux (here only /nearby/stream) with no timeout at all; on timeout the
+        // subscription is cancelled and its next page is never queried
+        configurer.registerDeferredResultInterceptors(new DeferredResultProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, DeferredResult<T> deferredResult) {
+                Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                        RequestAttributes.SCOPE_REQUEST);
+                if (handler instanceof HandlerMethod method
+                        && Publisher.class.isAssignableFrom(method.getMethod().getReturnType())) {
+                    ((AsyncWebRequest) request).setTimeout(Duration.ofMinutes(streamTimeoutMinutes).toMillis());
+                }
+            }
+        });
+    }
+}
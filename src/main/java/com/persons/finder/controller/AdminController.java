@@ -0,0 +1,93 @@
+package com.persons.finder.controller;
+
+import com.persons.finder.application.SecurityPatternService;
+import com.persons.finder.dto.SecurityPatternRequest;
+import com.persons.finder.dto.SecurityPatternResponse;
+import com.persons.finder.infrastructure.ai.BioCache;
+import com.persons.finder.infrastructure.location.LocationUpdateBuffer;
+import com.persons.finder.infrastructure.security.SecurityPatternRegistry;
+import com.persons.finder.infrastructure.spatial.CellIdBackfill;
+import com.persons.finder.infrastructure.spatial.NearbyTileCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+@Tag(name = "Administration", description = "Operational views and controls")
+public class AdminController {
+
+    private final BioCache bioCache;
+    private final SecurityPatternService securityPatternService;
+    private final LocationUpdateBuffer locationUpdateBuffer;
+    private final NearbyTileCache nearbyTileCache;
+    private final CellIdBackfill cellIdBackfill;
+
+    @GetMapping("/bio-cache")
+    @Operation(summary = "Bio cache statistics", description = "Hit, miss, shared in-flight and eviction counters of the generated-bio cache.")
+    public BioCache.BioCacheStats bioCacheStats() {
+        return bioCache.stats();
+    }
+
+    @GetMapping("/nearby-cache")
+    @Operation(summary = "Nearby cache statistics", description = "Hit, miss, invalidation and eviction counters of the nearby-search tile cache.")
+    public NearbyTileCache.NearbyCacheStats nearbyCacheStats() {
+        return nearbyTileCache.stats();
+    }
+
+    @GetMapping("/cell-backfill")
+    @Operation(summary = "Cell id backfill status", description = "Whether every located person has a cell id yet, and how many were backfilled on this node.")
+    public CellIdBackfill.CellBackfillStatus cellBackfillStatus() {
+        return cellIdBackfill.status();
+    }
+
+    @PostMapping("/cell-backfill/run")
+    @Operation(summary = "Run the cell id backfill", description = "Fills in missing cell ids now, in keyset batches, and returns when done. Returns the current status at once if a backfill is already running.")
+    public CellIdBackfill.CellBackfillStatus runCellBackfill() {
+        return cellIdBackfill.run();
+    }
+
+    @GetMapping("/location-buffer")
+    @Operation(summary = "Location buffer statistics", description = "Queue depth, coalesced updates and flush latency of the buffered location ingestion.")
+    public LocationUpdateBuffer.LocationBufferStats locationBufferStats() {
+        return locationUpdateBuffer.stats();
+    }
+
+    @GetMapping("/security-patterns")
+    @Operation(summary = "List security patterns", description = "All input and output blacklist patterns currently stored.")
+    public List<SecurityPatternResponse> listSecurityPatterns() {
+        return securityPatternService.listPatterns();
+    }
+
+    @PostMapping("/security-patterns")
+    @Operation(summary = "Add a security pattern", description = "Adds a blacklist pattern. It takes effect on this node at commit and on other nodes within one poll interval.")
+    public ResponseEntity<SecurityPatternResponse> addSecurityPattern(@Valid @RequestBody SecurityPatternRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(securityPatternService.addPattern(request));
+    }
+
+    @DeleteMapping("/security-patterns/{id}")
+    @Operation(summary = "Remove a security pattern", description = "Removes a blacklist pattern from every node.")
+    public ResponseEntity<Void> deleteSecurityPattern(@PathVariable Long id) {
+        securityPatternService.deletePattern(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/security-patterns/status")
+    @Operation(summary = "Security pattern snapshot", description = "Version, pattern counts and load time of the compiled snapshot on this node.")
+    public SecurityPatternRegistry.SecurityPatternStatus securityPatternStatus() {
+        return securityPatternService.status();
+    }
+
+    @PostMapping("/security-patterns/reload")
+    @Operation(summary = "Reload security patterns", description = "Recompiles the snapshot on this node from the database immediately.")
+    public SecurityPatternRegistry.SecurityPatternStatus reloadSecurityPatterns() {
+        return securityPatternService.reload();
+    }
+}
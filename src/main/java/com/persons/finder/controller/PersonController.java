@@ -1,9 +1,17 @@
 package com.persons.finder.controller;
 
+import com.persons.finder.dto.CursorSlice;
+import com.persons.finder.dto.ImportJobResponse;
+import com.persons.finder.dto.LocationBatchResult;
 import com.persons.finder.dto.LocationRequest;
+import com.persons.finder.dto.PersonFields;
 import com.persons.finder.dto.PersonRequest;
 import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.application.LocationBatchService;
+import com.persons.finder.application.PersonExportService;
+import com.persons.finder.application.PersonImportService;
 import com.persons.finder.application.PersonService;
+import com.persons.finder.application.PersonStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,10 +20,19 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/persons") // version control is very important
@@ -23,7 +40,14 @@ import javax.validation.Valid;
 @Tag(name = "Person Management", description = "APIs for location-based search and AI profile creation")
 public class PersonController {
 
+    private static final long MAX_BIO_WAIT_MS = 60_000;
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final PersonService personService;
+    private final LocationBatchService locationBatchService;
+    private final PersonImportService personImportService;
+    private final PersonExportService personExportService;
+    private final PersonStreamService personStreamService;
 
     @GetMapping("/nearby")
     @Operation(summary = "Find nearby people", description = "Returns a paginated list of people within a specified radius, sorted by proximity.")
@@ -31,12 +55,89 @@ public class PersonController {
             @Parameter(description = "Center latitude, e.g., -36.8485") @RequestParam double lat,
             @Parameter(description = "Center longitude, e.g., 174.7633") @RequestParam double lon,
             @Parameter(description = "Radius in kilometers") @RequestParam(defaultValue = "10.0") double radius,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,location; the rest are null. Defaults to all fields") @RequestParam(required = false) String fields,
             @PageableDefault(size = 20) Pageable pageable) {
 
-        Slice<PersonResponse> nearbyPeople = personService.findNearby(lat, lon, radius, pageable);
+        Slice<PersonResponse> nearbyPeople = personService.findNearby(lat, lon, radius, pageable, PersonFields.parse(fields));
         return ResponseEntity.ok(nearbyPeople);
     }
 
+    @GetMapping("/nearby/scroll")
+    @Operation(summary = "Scroll nearby people", description = "Keyset-paginated variant of /nearby: pass the returned nextCursor to fetch the following page at constant cost.")
+    public CursorSlice<PersonResponse> scrollNearby(
+            @Parameter(description = "Center latitude, e.g., -36.8485") @RequestParam double lat,
+            @Parameter(description = "Center longitude, e.g., 174.7633") @RequestParam double lon,
+            @Parameter(description = "Radius in kilometers") @RequestParam(defaultValue = "10.0") double radius,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "nextCursor from the previous page; omit for the first page") @RequestParam(required = false) String cursor) {
+
+        return personService.scrollNearby(lat, lon, radius, size, cursor);
+    }
+
+    @GetMapping(value = "/nearby/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Stream nearby people", description = "Non-blocking variant of /nearby: up to limit people within the radius, nearest first, as NDJSON or server-sent events. Results are read as the client consumes them, so memory stays bounded for slow clients.")
+    public Flux<PersonResponse> streamNearby(
+            @Parameter(description = "Center latitude, e.g., -36.8485") @RequestParam double lat,
+            @Parameter(description = "Center longitude, e.g., 174.7633") @RequestParam double lon,
+            @Parameter(description = "Radius in kilometers") @RequestParam(defaultValue = "10.0") double radius,
+            @Parameter(description = "Maximum number of people to stream (1-100000)") @RequestParam(defaultValue = "1000") int limit,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,location; the rest are null. Defaults to all fields") @RequestParam(required = false) String fields) {
+
+        return personStreamService.streamNearby(lat, lon, radius, limit, PersonFields.parse(fields));
+    }
+
+    @GetMapping("/nearest")
+    @Operation(summary = "Find the k nearest people", description = "Returns the k people closest to the given point, nearest first, without needing a radius.")
+    public List<PersonResponse> getNearest(
+            @Parameter(description = "Center latitude, e.g., -36.8485") @RequestParam double lat,
+            @Parameter(description = "Center longitude, e.g., 174.7633") @RequestParam double lon,
+            @Parameter(description = "Number of people to return (1-1000)") @RequestParam(defaultValue = "10") int k) {
+
+        return personService.findNearest(lat, lon, k);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Export people", description = "Streams every person, or those within radius km of (lat, lon), as NDJSON in no particular order. Memory use is flat however many rows are exported; use fields= to limit the columns.")
+    public ResponseEntity<StreamingResponseBody> exportPersons(
+            @Parameter(description = "Center latitude; omit lat, lon and radius to export everyone") @RequestParam(required = false) Double lat,
+            @Parameter(description = "Center longitude") @RequestParam(required = false) Double lon,
+            @Parameter(description = "Radius in kilometers") @RequestParam(required = false) Double radius,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,location; the rest are null. Defaults to all fields") @RequestParam(required = false) String fields) {
+
+        personExportService.validateRegion(lat, lon, radius);
+        PersonFields selected = PersonFields.parse(fields);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> personExportService.export(lat, lon, radius, selected, out));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a person", description = "Returns one person, including the current bioStatus.")
+    public PersonResponse getPerson(@PathVariable Long id) {
+        return personService.getPerson(id);
+    }
+
+    @GetMapping("/{id}/bio")
+    @Operation(summary = "Wait for a bio", description = "Long-polls until the person's bio is no longer PENDING, or returns the current state when timeoutMs elapses.")
+    public DeferredResult<PersonResponse> awaitBio(
+            @PathVariable Long id,
+            @Parameter(description = "Maximum wait in milliseconds (max 60000)") @RequestParam(defaultValue = "30000") long timeoutMs) {
+
+        DeferredResult<PersonResponse> result = new DeferredResult<>(
+                Math.min(Math.max(timeoutMs, 1), MAX_BIO_WAIT_MS), () -> personService.getPerson(id));
+        CompletableFuture<PersonResponse> bio = personService.awaitBio(id);
+        bio.whenComplete((person, error) -> {
+            if (error != null) {
+                result.setErrorResult(error);
+            } else {
+                result.setResult(person);
+            }
+        });
+        // after a timeout nobody reads the future any more; a bio stuck in PENDING must not keep it registered
+        result.onCompletion(() -> personService.stopAwaitingBio(id, bio));
+        return result;
+    }
+
     @PutMapping("/{id}/location")
     @Operation(summary = "Update location", description = "Updates the GPS coordinates for an existing person.")
     public PersonResponse updateLocation(
@@ -46,9 +147,55 @@ public class PersonController {
         return personService.updateLocation(id, request);
     }
 
+    @PutMapping(value = "/{id}/location", params = "buffered=true")
+    @Operation(summary = "Update location (buffered)", description = "High-frequency ingestion: updates are coalesced per person and written in batches. Returns 202 at once, or with ack=true 204 once the update has been committed (404 if the person does not exist).")
+    public CompletableFuture<ResponseEntity<Void>> updateLocationBuffered(
+            @PathVariable Long id,
+            @Valid @RequestBody LocationRequest request,
+            @Parameter(description = "Wait until the update has been written") @RequestParam(defaultValue = "false") boolean ack) {
+
+        CompletableFuture<Void> written = personService.bufferLocation(id, request);
+        if (!ack) {
+            return CompletableFuture.completedFuture(ResponseEntity.accepted().build());
+        }
+        return written.thenApply(ignored -> ResponseEntity.noContent().build());
+    }
+
+    @PostMapping(value = "/locations:batch", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @Operation(summary = "Bulk update locations", description = "Streams an NDJSON body of {\"id\", \"latitude\", \"longitude\"} records, one per line, and applies them in JDBC batches. Invalid records are counted and skipped.")
+    public LocationBatchResult updateLocations(HttpServletRequest request) throws IOException {
+        return locationBatchService.importLocations(request.getInputStream());
+    }
+
+    @PostMapping(value = "/imports", consumes = {MediaType.APPLICATION_NDJSON_VALUE, "text/csv"})
+    @Operation(summary = "Bulk import people", description = "Accepts an NDJSON body of PersonRequest objects or a CSV file with a name,jobTitle,hobbies,latitude,longitude header. Rows are validated and inserted in batches with a PENDING bio; bios are generated in the background at a capped upstream rate. Returns 202 with the import job to poll.")
+    public ResponseEntity<ImportJobResponse> importPersons(HttpServletRequest request) throws IOException {
+        PersonImportService.Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV)
+                ? PersonImportService.Format.CSV : PersonImportService.Format.NDJSON;
+        ImportJobResponse job = personImportService.startImport(request.getInputStream(), format);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/persons/imports/" + job.id()))
+                .body(job);
+    }
+
+    @GetMapping("/imports/{jobId}")
+    @Operation(summary = "Get an import job", description = "Progress counters of a bulk import: rows received, inserted and rejected, and bios ready, failed and pending.")
+    public ImportJobResponse getImport(@PathVariable long jobId) {
+        return personImportService.getJob(jobId);
+    }
+
     @PostMapping
-    @Operation(summary = "Create a person", description = "Creates a new person and generates AI bio.")
-    public ResponseEntity<PersonResponse> createPerson(@Valid @RequestBody PersonRequest request) {
+    @Operation(summary = "Create a person", description = "Creates a new person and generates AI bio. With async=true the person is stored at once with a PENDING bio (202 Accepted); poll GET /{id} or long-poll GET /{id}/bio for completion.")
+    public ResponseEntity<PersonResponse> createPerson(
+            @Valid @RequestBody PersonRequest request,
+            @Parameter(description = "Generate the bio in the background") @RequestParam(defaultValue = "false") boolean async) {
+
+        if (async) {
+            PersonResponse pending = personService.createPersonAsync(request);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/persons/" + pending.id()))
+                    .body(pending);
+        }
 
         // 1. 调用 Service，这里面已经包含了：
         //    AI 生成 -> 安全脱敏 -> 存入数据库
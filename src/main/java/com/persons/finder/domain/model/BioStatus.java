@@ -0,0 +1,7 @@
+package com.persons.finder.domain.model;
+
+public enum BioStatus {
+    PENDING,
+    READY,
+    FAILED
+}
@@ -1,5 +1,7 @@
 package com.persons.finder.domain.model;
 
+import com.persons.finder.infrastructure.spatial.SpatialIndexListener;
+import com.persons.finder.infrastructure.util.GeoUtils;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -13,8 +15,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(SpatialIndexListener.class)
 @Table(name = "persons", indexes = {
-        @Index(name = "idx_location", columnList = "latitude, longitude")
+        @Index(name = "idx_location", columnList = "latitude, longitude"),
+        @Index(name = "idx_cell", columnList = "cell_id, latitude, longitude, id")
 })
 public class Person {
 
@@ -33,9 +37,18 @@ public class Person {
     @Column(columnDefinition = "TEXT")
     private String bio;
 
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private BioStatus bioStatus;
+
     @Embedded
     private Location location;
 
+    // Z-order cell of the location (GeoUtils.cellId), derived on every write; JDBC writers set it themselves
+    @Setter(AccessLevel.NONE)
+    @Column(name = "cell_id")
+    private Long cellId;
+
     @Version
     private Long version;
 
@@ -45,4 +58,12 @@ public class Person {
 
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    void updateCellId() {
+        cellId = location != null && location.getLatitude() != null && location.getLongitude() != null
+                ? GeoUtils.cellId(location.getLatitude(), location.getLongitude())
+                : null;
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.persons.finder.domain.model;
 
+import com.persons.finder.infrastructure.security.SecurityPatternListener;
 import lombok.*;
 
 import javax.persistence.*;
@@ -10,6 +11,7 @@ import javax.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+@EntityListeners(SecurityPatternListener.class)
 @Table(name = "security_patterns", indexes = {
         @Index(name = "idx_pattern_unique", columnList = "pattern", unique = true),
         @Index(name = "idx_pattern_type", columnList = "type")
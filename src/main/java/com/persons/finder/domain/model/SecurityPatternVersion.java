@@ -0,0 +1,26 @@
+package com.persons.finder.domain.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+
+/**
+ * Single-row change counter for security_patterns. Every admin write bumps it in the same transaction,
+ * so each node can detect a changed pattern set with one cheap primary-key read.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "security_pattern_version")
+public class SecurityPatternVersion {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version;
+}
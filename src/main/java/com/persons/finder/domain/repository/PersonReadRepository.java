@@ -0,0 +1,257 @@
+package com.persons.finder.domain.repository;
+
+import com.persons.finder.domain.model.BioStatus;
+import com.persons.finder.domain.model.Location;
+import com.persons.finder.dto.PersonFields;
+import com.persons.finder.dto.PersonFields.Field;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.infrastructure.spatial.CellIdBackfill;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import com.persons.finder.infrastructure.util.GeoUtils.BoundingBox;
+import com.persons.finder.infrastructure.util.GeoUtils.CellRange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+
+/**
+ * Read-only person queries that map rows straight into {@link PersonResponse}.
+ * Only the columns of the requested fields are selected, and nothing enters the persistence context,
+ * so search results carry no bio TEXT, version or dirty-checking snapshot they do not need.
+ * <p>
+ * Radius queries first narrow rows to the bounding box, using the index of the configured
+ * {@link LocationBackend}, then compute distances for the survivors only.
+ */
+@Repository
+public class PersonReadRepository {
+
+    /**
+     * How the bounding box of a radius query is matched.
+     */
+    public enum LocationBackend {
+        /**
+         * Latitude and longitude ranges on idx_location. The B-tree only narrows by latitude;
+         * longitude is checked on every row of the latitude band.
+         */
+        BTREE("latitude BETWEEN :minLat AND :maxLat AND longitude BETWEEN :minLon AND :maxLon"),
+        /**
+         * Envelope intersection on the generated POINT column geom and its R-tree index idx_person_geom,
+         * which narrows by both coordinates. Needs the geometry profile's schema (db/person-geometry.sql).
+         */
+        GEOMETRY("geom && CAST(:envelope AS GEOMETRY)"),
+        /**
+         * Joins a few cell_id ranges covering the box, each one range scan of idx_cell, so only the cells
+         * around the box are read. Falls back to BTREE until cell ids are backfilled.
+         */
+        CELL("cell_id BETWEEN first_cell AND last_cell");
+
+        private final String boxFilter;
+
+        LocationBackend(String boxFilter) {
+            this.boxFilter = boxFilter;
+        }
+    }
+
+    // cells covering one box; more cells fit the box closer but cost more range scans
+    private static final int MAX_CELLS = 16;
+
+    // same earth radius as GeoUtils, so scroll cursors hold the same distances whether or not the spatial index answers
+    private static final String DISTANCE_KM = "(6371.01 * acos(cos(radians(:lat)) * cos(radians(latitude)) * " +
+            "cos(radians(longitude) - radians(:lon)) + sin(radians(:lat)) * sin(radians(latitude))))";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    // same data source, but every statement asks the driver for rows in fetch-size chunks
+    private final NamedParameterJdbcTemplate streamingTemplate;
+    private final LocationBackend locationBackend;
+    private final CellIdBackfill cellIdBackfill;
+
+    public PersonReadRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                @Value("${app.export.fetch-size:1000}") int fetchSize,
+                                @Value("${app.location-backend:btree}") LocationBackend locationBackend,
+                                CellIdBackfill cellIdBackfill) {
+        this.jdbcTemplate = jdbcTemplate;
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        streaming.setFetchSize(fetchSize);
+        this.streamingTemplate = new NamedParameterJdbcTemplate(streaming);
+        this.locationBackend = locationBackend;
+        this.cellIdBackfill = cellIdBackfill;
+    }
+
+    /**
+     * Persons with the given ids, in the order of ids. Ids without a row are skipped.
+     */
+    public List<PersonResponse> findAllById(long[] ids, PersonFields fields) {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        RowMapper<PersonResponse> mapper = rowMapper(fields);
+        Map<Long, PersonResponse> byId = new HashMap<>(ids.length * 2);
+        jdbcTemplate.query("SELECT " + columns(fields) + " FROM persons WHERE id IN (:ids)",
+                new MapSqlParameterSource("ids", Arrays.stream(ids).boxed().toList()),
+                rs -> {
+                    PersonResponse person = mapper.mapRow(rs, 0);
+                    byId.put(person.id(), person);
+                });
+        List<PersonResponse> content = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            PersonResponse person = byId.get(id);
+            // an id can briefly outlive its row while a concurrent delete is being applied
+            if (person != null) {
+                content.add(person);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Persons within radiusKm of (lat, lon), nearest first. The bounding box lets the location index
+     * discard most rows before the distance is computed.
+     */
+    public List<PersonResponse> findNearby(double lat, double lon, double radiusKm, BoundingBox box,
+                                           long offset, int limit, PersonFields fields) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lat", lat)
+                .addValue("lon", lon)
+                .addValue("radius", radiusKm)
+                .addValue("offset", offset)
+                .addValue("limit", limit);
+        return jdbcTemplate.query("SELECT " + columns(fields) + " " + boxQuery(params, box) +
+                "AND " + DISTANCE_KM + " <= :radius " +
+                "ORDER BY (latitude - :lat) * (latitude - :lat) + (longitude - :lon) * (longitude - :lon) ASC " +
+                "LIMIT :limit OFFSET :offset", params, rowMapper(fields));
+    }
+
+    /**
+     * Keyset page of {@link #findNearby}: persons within radiusKm ordered by (distance, id), strictly after
+     * (afterDistance, afterId). Each row carries the distance its cursor continues from.
+     */
+    public List<NearbyRow> findNearbyAfter(double lat, double lon, double radiusKm, BoundingBox box,
+                                           double afterDistance, long afterId, int limit, PersonFields fields) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lat", lat)
+                .addValue("lon", lon)
+                .addValue("radius", radiusKm)
+                .addValue("afterDistance", afterDistance)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        RowMapper<PersonResponse> mapper = rowMapper(fields);
+        // the distance is computed once in the inner query, so the key comparison and the order use the same value
+        return jdbcTemplate.query("SELECT * FROM (SELECT " + columns(fields) + ", " + DISTANCE_KM + " AS distance " +
+                boxQuery(params, box) + ") nearby " +
+                "WHERE distance <= :radius AND (distance > :afterDistance OR (distance = :afterDistance AND id > :afterId)) " +
+                "ORDER BY distance ASC, id ASC LIMIT :limit", params,
+                (rs, rowNum) -> new NearbyRow(mapper.mapRow(rs, rowNum), rs.getDouble("distance")));
+    }
+
+    /**
+     * Passes every person to sink as its row is read from a forward-only cursor, in no particular order.
+     */
+    public void streamAll(PersonFields fields, Consumer<PersonResponse> sink) {
+        stream("SELECT " + columns(fields) + " FROM persons", new MapSqlParameterSource(), fields, sink);
+    }
+
+    /**
+     * Like {@link #streamAll}, restricted to persons within radiusKm of (lat, lon).
+     */
+    public void streamNearby(double lat, double lon, double radiusKm, BoundingBox box,
+                             PersonFields fields, Consumer<PersonResponse> sink) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("lat", lat)
+                .addValue("lon", lon)
+                .addValue("radius", radiusKm);
+        stream("SELECT " + columns(fields) + " " + boxQuery(params, box) +
+                "AND " + DISTANCE_KM + " <= :radius", params, fields, sink);
+    }
+
+    // FROM and WHERE of a radius query, narrowed to the box by the location backend
+    private String boxQuery(MapSqlParameterSource params, BoundingBox box) {
+        LocationBackend backend = locationBackend == LocationBackend.CELL && !cellIdBackfill.isComplete()
+                ? LocationBackend.BTREE
+                : locationBackend;
+        String from = "FROM persons ";
+        switch (backend) {
+            case BTREE -> params.addValue("minLat", box.minLat())
+                    .addValue("maxLat", box.maxLat())
+                    .addValue("minLon", box.minLon())
+                    .addValue("maxLon", box.maxLon());
+            case GEOMETRY -> params.addValue("envelope", "POLYGON ((" + box.minLon() + " " + box.minLat() + ", "
+                    + box.maxLon() + " " + box.minLat() + ", " + box.maxLon() + " " + box.maxLat() + ", "
+                    + box.minLon() + " " + box.maxLat() + ", " + box.minLon() + " " + box.minLat() + "))");
+            case CELL -> {
+                // joined rather than OR-ed, so that each range is its own index range scan; no latitude or
+                // longitude range either, which would let the planner read persons through idx_location first
+                List<CellRange> cells = GeoUtils.cellRanges(box, MAX_CELLS);
+                StringJoiner ranges = new StringJoiner(", ", "FROM (VALUES ", ") cells (first_cell, last_cell) JOIN persons ");
+                for (int i = 0; i < cells.size(); i++) {
+                    ranges.add("(CAST(:firstCell" + i + " AS BIGINT), CAST(:lastCell" + i + " AS BIGINT))");
+                    params.addValue("firstCell" + i, cells.get(i).first())
+                            .addValue("lastCell" + i, cells.get(i).last());
+                }
+                from = ranges.toString();
+            }
+        }
+        return from + "WHERE " + backend.boxFilter + " ";
+    }
+
+    private void stream(String sql, MapSqlParameterSource params, PersonFields fields, Consumer<PersonResponse> sink) {
+        RowMapper<PersonResponse> mapper = rowMapper(fields);
+        streamingTemplate.query(sql, params, (RowCallbackHandler) rs -> sink.accept(mapper.mapRow(rs, 0)));
+    }
+
+    /**
+     * A person with its distance in KM from the query point, as computed by the database.
+     */
+    public record NearbyRow(PersonResponse person, double distance) {
+    }
+
+    private static String columns(PersonFields fields) {
+        StringJoiner columns = new StringJoiner(", ");
+        for (Field field : fields.selected()) {
+            columns.add(switch (field) {
+                case ID -> "id";
+                case NAME -> "name";
+                case JOB_TITLE -> "job_title";
+                case HOBBIES -> "hobbies";
+                case BIO -> "bio";
+                case BIO_STATUS -> "bio_status";
+                case LOCATION -> "latitude, longitude";
+                case CREATED_AT -> "created_at";
+            });
+        }
+        return columns.toString();
+    }
+
+    private static RowMapper<PersonResponse> rowMapper(PersonFields fields) {
+        boolean name = fields.includes(Field.NAME);
+        boolean jobTitle = fields.includes(Field.JOB_TITLE);
+        boolean hobbies = fields.includes(Field.HOBBIES);
+        boolean bio = fields.includes(Field.BIO);
+        boolean bioStatus = fields.includes(Field.BIO_STATUS);
+        boolean location = fields.includes(Field.LOCATION);
+        boolean createdAt = fields.includes(Field.CREATED_AT);
+        return (rs, rowNum) -> {
+            String status = bioStatus ? rs.getString("bio_status") : null;
+            return new PersonResponse(
+                    rs.getLong("id"),
+                    name ? rs.getString("name") : null,
+                    jobTitle ? rs.getString("job_title") : null,
+                    hobbies ? rs.getString("hobbies") : null,
+                    bio ? rs.getString("bio") : null,
+                    status != null ? BioStatus.valueOf(status) : null,
+                    location ? new Location(rs.getObject("latitude", Double.class), rs.getObject("longitude", Double.class)) : null,
+                    createdAt ? rs.getObject("created_at", LocalDateTime.class) : null);
+        };
+    }
+}
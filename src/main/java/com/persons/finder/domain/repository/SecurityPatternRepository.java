@@ -14,4 +14,6 @@ public interface SecurityPatternRepository extends JpaRepository<SecurityPattern
     @Query("SELECT s.pattern FROM SecurityPattern s WHERE s.type = :type")
     List<String> findPatternsByType(@Param("type") String type);
 
+    boolean existsByPattern(String pattern);
+
 }
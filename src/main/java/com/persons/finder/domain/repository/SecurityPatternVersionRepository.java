@@ -0,0 +1,28 @@
+package com.persons.finder.domain.repository;
+
+import com.persons.finder.domain.model.SecurityPatternVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface SecurityPatternVersionRepository extends JpaRepository<SecurityPatternVersion, Long> {
+
+    @Query("SELECT v.version FROM SecurityPatternVersion v WHERE v.id = " + SecurityPatternVersion.SINGLETON_ID)
+    Optional<Long> currentVersion();
+
+    // a no-op when the row exists, so nodes starting together cannot collide on the primary key
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO security_pattern_version (id, version) VALUES ("
+            + SecurityPatternVersion.SINGLETON_ID + ", 0)", nativeQuery = true)
+    int insertIfAbsent();
+
+    @Modifying
+    @Query("UPDATE SecurityPatternVersion v SET v.version = v.version + 1 WHERE v.id = " + SecurityPatternVersion.SINGLETON_ID)
+    int increment();
+}
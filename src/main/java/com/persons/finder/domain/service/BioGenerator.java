@@ -3,5 +3,15 @@ package com.persons.finder.domain.service;
 import com.persons.finder.domain.model.Person;
 
 public interface BioGenerator {
+
+    /**
+     * Generates the bio, failing when the AI upstream is unavailable so a deferred caller can record that.
+     */
     String generateBio(Person person);
+
+    /**
+     * Like {@link #generateBio}, but answers at once with a placeholder bio when the AI upstream is
+     * shedding load; for callers that cannot retry later.
+     */
+    String generateBioOrFallback(Person person);
 }
@@ -0,0 +1,13 @@
+package com.persons.finder.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset scroll. Pass nextCursor back to continue; it is null on the last page.
+ */
+public record CursorSlice<T>(
+        List<T> content,
+        String nextCursor,
+        boolean hasNext
+) {
+}
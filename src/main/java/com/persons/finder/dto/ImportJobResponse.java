@@ -0,0 +1,25 @@
+package com.persons.finder.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress of a bulk person import. Rows are inserted first; bios are then generated in the background,
+ * so biosPending falls to zero once the job is COMPLETED.
+ */
+public record ImportJobResponse(
+        long id,
+        ImportState state,
+        long received,
+        long inserted,
+        long rejected,
+        long biosReady,
+        long biosFailed,
+        long biosPending,
+        List<String> errors,
+        Instant startedAt,
+        Instant finishedAt
+) {
+
+    public enum ImportState { QUEUED, INSERTING, ENRICHING, COMPLETED, FAILED }
+}
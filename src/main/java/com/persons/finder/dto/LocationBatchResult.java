@@ -0,0 +1,15 @@
+package com.persons.finder.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk location upload. errors holds the first few rejected records with their reason.
+ */
+public record LocationBatchResult(
+        long received,
+        long updated,
+        long notFound,
+        long rejected,
+        List<String> errors
+) {
+}
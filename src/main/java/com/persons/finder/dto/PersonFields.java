@@ -0,0 +1,61 @@
+package com.persons.finder.dto;
+
+import com.persons.finder.exception.BusinessException;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link PersonResponse} properties a client asked for with fields=, e.g. "id,location".
+ * The id is always included; unselected properties are returned as null and never read from the database.
+ */
+public record PersonFields(Set<Field> selected) {
+
+    public static final PersonFields ALL = new PersonFields(EnumSet.allOf(Field.class));
+
+    public enum Field {
+        ID("id"),
+        NAME("name"),
+        JOB_TITLE("jobTitle"),
+        HOBBIES("hobbies"),
+        BIO("bio"),
+        BIO_STATUS("bioStatus"),
+        LOCATION("location"),
+        CREATED_AT("createdAt");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        public String property() {
+            return property;
+        }
+    }
+
+    public static PersonFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Set<Field> selected = EnumSet.of(Field.ID);
+        for (String name : fields.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            selected.add(Arrays.stream(Field.values())
+                    .filter(field -> field.property.equalsIgnoreCase(property))
+                    .findFirst()
+                    .orElseThrow(() -> new BusinessException("Unknown field '" + property + "', expected any of: "
+                            + Arrays.stream(Field.values()).map(Field::property).collect(Collectors.joining(",")))));
+        }
+        return new PersonFields(selected);
+    }
+
+    public boolean includes(Field field) {
+        return selected.contains(field);
+    }
+}
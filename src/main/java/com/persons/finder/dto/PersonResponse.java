@@ -1,5 +1,6 @@
 package com.persons.finder.dto;
 
+import com.persons.finder.domain.model.BioStatus;
 import com.persons.finder.domain.model.Location;
 
 import java.time.LocalDateTime;
@@ -10,6 +11,7 @@ public record PersonResponse(
         String jobTitle,
         String hobbies,
         String bio,
+        BioStatus bioStatus,
         Location location,
         LocalDateTime createdAt
 ) {
@@ -0,0 +1,19 @@
+package com.persons.finder.dto;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+public record SecurityPatternRequest(
+        @NotBlank(message = "Pattern is required")
+        @Size(max = 255, message = "Pattern must be under 255 characters")
+        String pattern,
+
+        @NotBlank(message = "Type is required")
+        @Pattern(regexp = "INPUT_FILTER|OUTPUT_FILTER", message = "Type must be INPUT_FILTER or OUTPUT_FILTER")
+        String type,
+
+        @Size(max = 255, message = "Description must be under 255 characters")
+        String description
+) {
+}
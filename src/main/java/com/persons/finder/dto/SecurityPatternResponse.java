@@ -0,0 +1,9 @@
+package com.persons.finder.dto;
+
+public record SecurityPatternResponse(
+        Long id,
+        String pattern,
+        String type,
+        String description
+) {
+}
@@ -1,6 +1,7 @@
 package com.persons.finder.exception;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -54,6 +55,7 @@ public class GlobalExceptionHandler {
                 message,
                 request.getDescription(false)
         );
-        return new ResponseEntity<>(error, status);
+        // always JSON, even when a streaming endpoint's client only accepts NDJSON or event streams
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(error);
     }
 }
@@ -3,14 +3,18 @@ package com.persons.finder.infrastructure.ai;
 import com.persons.finder.domain.model.Person;
 import com.persons.finder.domain.service.BioGenerator;
 import com.persons.finder.infrastructure.security.SecurityManager;
+import com.persons.finder.infrastructure.security.strategy.OutputFilterStrategy;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class AiBioGenerator implements BioGenerator {
 
-    private final AiClient aiClient;
+    private final AiRequestBatcher aiRequestBatcher;
+    private final BioCache bioCache;
     private final SecurityManager securityManager;
 
     @Override
@@ -23,7 +27,20 @@ public class AiBioGenerator implements BioGenerator {
                         "Constraint: Maximum 20 words.",
                 person.getName(), person.getJobTitle(), person.getHobbies()
         );
-        String raw = aiClient.generate(prompt);
+        // identical profiles reuse a cached bio; the rest share upstream requests through the micro-batcher
+        String raw = bioCache.get(person.getName(), person.getJobTitle(), person.getHobbies(),
+                () -> aiRequestBatcher.generate(prompt));
         return securityManager.sanitizeOutput(raw);
     }
-}
\ No newline at end of file
+
+    @Override
+    public String generateBioOrFallback(Person person) {
+        try {
+            return generateBio(person);
+        } catch (AiUnavailableException e) {
+            // the upstream is shedding load: answer at once, and the cache keeps nothing for this profile
+            log.warn("AI unavailable ({}), using fallback bio", e.getMessage());
+            return OutputFilterStrategy.FALLBACK_BIO;
+        }
+    }
+}
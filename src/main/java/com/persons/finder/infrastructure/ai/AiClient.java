@@ -1,5 +1,15 @@
 package com.persons.finder.infrastructure.ai;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 public interface AiClient {
     String generate(String prompt);
+
+    /**
+     * One completion per prompt, in the same order. Implementations may pack several prompts into a single upstream call.
+     */
+    default List<String> generateBatch(List<String> prompts) {
+        return prompts.stream().map(this::generate).collect(Collectors.toList());
+    }
 }
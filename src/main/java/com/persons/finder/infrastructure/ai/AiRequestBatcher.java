@@ -0,0 +1,212 @@
+package com.persons.finder.infrastructure.ai;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Collects prompts from concurrent callers into micro-batches for {@link AiClient#generateBatch}.
+ * A batch is sent when it reaches max-size or when max-wait has passed since its first prompt arrived;
+ * a lone prompt still goes through {@link AiClient#generate}. A batch is only formed once one of the
+ * concurrency senders is free, so prompts arriving while all of them are busy join the next batch
+ * instead of queueing behind it one by one.
+ * A caller waits at most timeout-ms for its answer; on shutdown every prompt not yet sent fails with
+ * {@link AiUnavailableException}.
+ */
+@Slf4j
+@Component
+public class AiRequestBatcher {
+
+    private final AiClient aiClient;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final int concurrency;
+    private final long timeoutMs;
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary batchSizes;
+
+    private final BlockingQueue<PendingPrompt> queue = new LinkedBlockingQueue<>();
+    private ExecutorService dispatcher;
+    private ExecutorService senders;
+    private Semaphore freeSenders;
+    private volatile boolean running;
+
+    public AiRequestBatcher(AiClient aiClient,
+                            @Value("${app.ai.batch.enabled:true}") boolean enabled,
+                            @Value("${app.ai.batch.max-size:16}") int maxSize,
+                            @Value("${app.ai.batch.max-wait-ms:20}") long maxWaitMs,
+                            @Value("${app.ai.batch.concurrency:4}") int concurrency,
+                            @Value("${app.ai.batch.timeout-ms:30000}") long timeoutMs,
+                            MeterRegistry meterRegistry) {
+        this.aiClient = aiClient;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.concurrency = concurrency;
+        this.timeoutMs = timeoutMs;
+        this.meterRegistry = meterRegistry;
+        this.batchSizes = DistributionSummary.builder("ai.batch.size")
+                .description("Prompts per upstream AI request")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        dispatcher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("AiBatchDispatcher-"));
+        senders = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("AiBatchSender-"));
+        freeSenders = new Semaphore(concurrency);
+        dispatcher.execute(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.shutdownNow();
+            senders.shutdown();
+        }
+        failQueued();
+    }
+
+    /**
+     * Generates a completion for one prompt, blocking until the batch it joined has been answered.
+     */
+    public String generate(String prompt) {
+        if (!running) {
+            return call("generate", () -> aiClient.generate(prompt));
+        }
+        PendingPrompt pending = new PendingPrompt(prompt, new CompletableFuture<>());
+        queue.add(pending);
+        if (!running) {
+            // stop() may have drained the queue between the check above and the add
+            failQueued();
+        }
+        try {
+            return pending.result().get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            queue.remove(pending);
+            throw new AiUnavailableException("No AI response within " + timeoutMs + "ms", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for AI response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            List<PendingPrompt> batch = new ArrayList<>(maxSize);
+            try {
+                freeSenders.acquire();
+                PendingPrompt first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    freeSenders.release();
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingPrompt next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                senders.execute(() -> {
+                    try {
+                        send(batch);
+                    } finally {
+                        freeSenders.release();
+                    }
+                });
+            } catch (InterruptedException | RejectedExecutionException e) {
+                // stopped while a batch was being collected or handed over: its callers must not wait for the timeout
+                fail(batch);
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void failQueued() {
+        List<PendingPrompt> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left);
+    }
+
+    private void fail(List<PendingPrompt> prompts) {
+        AiUnavailableException error = new AiUnavailableException("AI batcher is shutting down", null);
+        prompts.forEach(pending -> pending.result().completeExceptionally(error));
+    }
+
+    private void send(List<PendingPrompt> batch) {
+        batchSizes.record(batch.size());
+        try {
+            if (batch.size() == 1) {
+                batch.get(0).result().complete(call("generate", () -> aiClient.generate(batch.get(0).prompt())));
+                return;
+            }
+            log.debug("Sending AI micro-batch of {} prompts", batch.size());
+            List<String> results = call("generateBatch",
+                    () -> aiClient.generateBatch(batch.stream().map(PendingPrompt::prompt).toList()));
+            if (results == null || results.size() != batch.size()) {
+                throw new IllegalStateException("AI batch returned " + (results == null ? 0 : results.size())
+                        + " results for " + batch.size() + " prompts");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+        }
+    }
+
+    // every upstream call is timed, tagged with its outcome so error latency does not skew the success SLO
+    private <T> T call(String operation, Supplier<T> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = request.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("ai.client.requests")
+                    .description("Upstream AI requests")
+                    .tags("client", aiClient.getClass().getSimpleName(), "operation", operation, "outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private record PendingPrompt(String prompt, CompletableFuture<String> result) {
+    }
+}
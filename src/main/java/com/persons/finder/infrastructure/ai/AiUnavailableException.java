@@ -0,0 +1,11 @@
+package com.persons.finder.infrastructure.ai;
+
+/**
+ * Thrown without calling upstream when the AI circuit is open or every upstream slot is busy, and when a
+ * micro-batched prompt times out or is dropped on shutdown.
+ */
+public class AiUnavailableException extends RuntimeException {
+    public AiUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
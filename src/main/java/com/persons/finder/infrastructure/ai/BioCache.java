@@ -0,0 +1,127 @@
+package com.persons.finder.infrastructure.ai;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Content-addressed cache of raw AI bios, keyed on a hash of the normalized (name, job, hobbies).
+ * Bounded by size and TTL. Concurrent requests for the same key share one upstream call (single flight).
+ * Output is still sanitized by the caller on every use, so pattern changes apply to cached bios too.
+ */
+@Slf4j
+@Component
+public class BioCache {
+
+    private final boolean enabled;
+    private final AsyncCache<String, String> cache;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder sharedInFlight = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BioCache(@Value("${app.ai.cache.enabled:true}") boolean enabled,
+                    @Value("${app.ai.cache.max-size:10000}") long maxSize,
+                    @Value("${app.ai.cache.ttl-minutes:60}") long ttlMinutes) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .removalListener((String key, String value, RemovalCause cause) -> {
+                    if (cause.wasEvicted()) {
+                        evictions.increment();
+                    }
+                })
+                .buildAsync();
+    }
+
+    public String get(String name, String jobTitle, String hobbies, Supplier<String> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        String key = key(name, jobTitle, hobbies);
+        CompletableFuture<String> created = new CompletableFuture<>();
+        CompletableFuture<String> existing = cache.asMap().putIfAbsent(key, created);
+
+        if (existing != null) {
+            if (existing.isDone()) {
+                hits.increment();
+            } else {
+                sharedInFlight.increment();
+            }
+            return join(existing);
+        }
+
+        misses.increment();
+        try {
+            created.complete(loader.get());
+        } catch (RuntimeException e) {
+            // failed loads are dropped by the cache, so the next caller retries upstream
+            created.completeExceptionally(e);
+        }
+        return join(created);
+    }
+
+    public BioCacheStats stats() {
+        return new BioCacheStats(hits.sum(), misses.sum(), sharedInFlight.sum(), evictions.sum(),
+                cache.synchronous().estimatedSize());
+    }
+
+    static String key(String name, String jobTitle, String hobbies) {
+        String normalized = normalize(name) + '\u0000' + normalize(jobTitle) + '\u0000' + normalizeHobbies(hobbies);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    // hobbies are a set: order, case and spacing do not change the bio we want
+    private static String normalizeHobbies(String hobbies) {
+        if (hobbies == null) {
+            return "";
+        }
+        return Arrays.stream(hobbies.split(","))
+                .map(BioCache::normalize)
+                .filter(h -> !h.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    private static String join(CompletableFuture<String> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public record BioCacheStats(long hits, long misses, long sharedInFlight, long evictions, long size) {
+    }
+}
@@ -2,17 +2,46 @@ package com.persons.finder.infrastructure.ai;
 
 import com.persons.finder.infrastructure.ai.AiClient;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.List;
+
 @Slf4j
 @Service
 @ConditionalOnProperty(name = "app.ai.mock", havingValue = "true")
 public class MockAiClient implements AiClient {
 
+    private static final String BIO = "A creative soul who loves exploring new ideas and enjoys coding, hiking, and good coffee.";
+
+    // simulated upstream round trip, so batching can be benchmarked offline
+    @Value("${app.ai.mock-latency-ms:0}")
+    private long latencyMs;
+
     @Override
     public String generate(String prompt) {
         log.info("Mock AI client generating bio from prompt: {}", prompt);
-        return "A creative soul who loves exploring new ideas and enjoys coding, hiking, and good coffee.";
+        simulateRoundTrip();
+        return BIO;
+    }
+
+    @Override
+    public List<String> generateBatch(List<String> prompts) {
+        log.info("Mock AI client generating {} bios in one request", prompts.size());
+        simulateRoundTrip();
+        return Collections.nCopies(prompts.size(), BIO);
+    }
+
+    private void simulateRoundTrip() {
+        if (latencyMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
-}
\ No newline at end of file
+}
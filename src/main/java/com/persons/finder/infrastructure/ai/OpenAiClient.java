@@ -1,7 +1,8 @@
 package com.persons.finder.infrastructure.ai;
 
-import com.persons.finder.infrastructure.ai.AiClient;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
@@ -12,38 +13,106 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @Service
 @ConditionalOnProperty(name = "app.ai.mock", havingValue = "false", matchIfMissing = true)
-@RequiredArgsConstructor
 public class OpenAiClient implements AiClient {
 
+    private static final String MODEL = "gpt-3.5-turbo";
+    private static final String PROMPT_PLACEHOLDER = "<prompt>";
+    private static final String BATCH_INSTRUCTION =
+            "You receive a JSON array of independent requests. Answer each one separately. " +
+            "Reply with a JSON object {\"results\": [...]} whose results array holds exactly one string per request, " +
+            "in the same order as the input.";
+
     private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String apiUrl;
+
+    // everything except the prompt is the same on every request, so headers and the JSON around
+    // the prompt are built once; a request only serializes its prompt string
+    private final HttpHeaders headers;
+    private final Template singleTemplate;
+    private final Template batchTemplate;
 
-    @Value("${app.ai.api-url}")
-    private String apiUrl;
+    public OpenAiClient(RestTemplate restTemplate,
+                        ObjectMapper objectMapper,
+                        @Value("${app.ai.api-url}") String apiUrl,
+                        @Value("${app.ai.api-key}") String apiKey) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.apiUrl = apiUrl;
 
-    @Value("${app.ai.api-key}")
-    private String apiKey;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setBearerAuth(apiKey);
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+
+        this.singleTemplate = template(Map.of("model", MODEL, "messages", List.of(userMessage())));
+        this.batchTemplate = template(Map.of(
+                "model", MODEL,
+                "response_format", Map.of("type", "json_object"),
+                "messages", List.of(Map.of("role", "system", "content", BATCH_INSTRUCTION), userMessage())));
+    }
 
     @Override
     public String generate(String prompt) {
         log.info("Preparing to send prompt to AI at: {}", apiUrl);
+        return complete(singleTemplate, prompt);
+    }
+
+    @Override
+    public List<String> generateBatch(List<String> prompts) {
+        if (prompts.size() <= 1) {
+            return AiClient.super.generateBatch(prompts);
+        }
+        log.info("Preparing to send {} prompts to AI in one request at: {}", prompts.size(), apiUrl);
 
+        String content;
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(apiKey);
+            content = complete(batchTemplate, objectMapper.writeValueAsString(prompts));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize batch prompts", e);
+        }
 
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("model", "gpt-3.5-turbo");
-            requestBody.put("messages", List.of(Map.of("role", "user", "content", prompt)));
+        List<String> results = parseBatch(content, prompts.size());
+        if (results == null) {
+            log.warn("AI batch response could not be parsed, falling back to {} single requests", prompts.size());
+            return AiClient.super.generateBatch(prompts);
+        }
+        return results;
+    }
 
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+    private List<String> parseBatch(String content, int expected) {
+        try {
+            JsonNode array = objectMapper.readTree(content).path("results");
+            if (!array.isArray() || array.size() != expected) {
+                return null;
+            }
+            List<String> results = new ArrayList<>(expected);
+            for (JsonNode node : array) {
+                if (!node.isTextual()) {
+                    return null;
+                }
+                results.add(node.asText());
+            }
+            return results;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String complete(Template template, String userContent) {
+        try {
+            HttpEntity<byte[]> entity = new HttpEntity<>(body(template, userContent), headers);
 
             ResponseEntity<Map> response = restTemplate.postForEntity(apiUrl, entity, Map.class);
 
@@ -61,4 +130,33 @@ public class OpenAiClient implements AiClient {
             throw new RuntimeException("AI service unavailable, please try again later.");
         }
     }
-}
\ No newline at end of file
+
+    private byte[] body(Template template, String userContent) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                template.prefix().length + userContent.length() + template.suffix().length + 16);
+        out.write(template.prefix());
+        objectMapper.writeValue(out, userContent);
+        out.write(template.suffix());
+        return out.toByteArray();
+    }
+
+    // the request serialized once with a placeholder as the user content, split around that placeholder
+    private Template template(Map<String, Object> request) {
+        try {
+            String json = objectMapper.writeValueAsString(request);
+            String placeholder = objectMapper.writeValueAsString(PROMPT_PLACEHOLDER);
+            int at = json.indexOf(placeholder);
+            return new Template(json.substring(0, at).getBytes(StandardCharsets.UTF_8),
+                    json.substring(at + placeholder.length()).getBytes(StandardCharsets.UTF_8));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize request template", e);
+        }
+    }
+
+    private static Map<String, String> userMessage() {
+        return Map.of("role", "user", "content", PROMPT_PLACEHOLDER);
+    }
+
+    private record Template(byte[] prefix, byte[] suffix) {
+    }
+}
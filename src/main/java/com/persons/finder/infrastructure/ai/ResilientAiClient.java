@@ -0,0 +1,181 @@
+package com.persons.finder.infrastructure.ai;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Guards the real {@link AiClient} so a slow or failing upstream cannot tie up every caller thread.
+ * A bulkhead caps in-flight upstream calls, and a circuit breaker opens when the failure or slow-call rate
+ * crosses its threshold; both reject with {@link AiUnavailableException} instead of waiting on the upstream.
+ * On virtual threads a waiting caller costs no platform thread, so the bulkhead lets it queue for a slot
+ * (app.ai.resilience.bulkhead.virtual-threads-max-wait-ms) instead of failing over after max-wait-ms.
+ * With a hedge delay set, a single-prompt call that has not answered by then is sent a second time and
+ * the first success wins.
+ */
+@Slf4j
+@Primary
+@Component
+public class ResilientAiClient implements AiClient {
+
+    private static final String NAME = "ai";
+
+    private final AiClient delegate;
+    private final boolean enabled;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final long hedgeDelayMs;
+    private final ExecutorService hedgeExecutor;
+    private final Counter hedges;
+
+    // the only other AiClient bean is the configured upstream (OpenAiClient or MockAiClient); Spring never
+    // injects a bean into itself, so this resolves to that one
+    public ResilientAiClient(AiClient delegate,
+                             MeterRegistry meterRegistry,
+                             @Value("${app.ai.resilience.enabled:true}") boolean enabled,
+                             @Value("${app.ai.resilience.bulkhead.max-concurrent-calls:8}") int maxConcurrentCalls,
+                             @Value("${app.ai.resilience.bulkhead.max-wait-ms:100}") long maxWaitMs,
+                             @Value("${app.virtual-threads.enabled:false}") boolean virtualThreads,
+                             @Value("${app.ai.resilience.bulkhead.virtual-threads-max-wait-ms:30000}") long virtualThreadsMaxWaitMs,
+                             @Value("${app.ai.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                             @Value("${app.ai.resilience.circuit-breaker.slow-call-rate-threshold:50}") float slowCallRateThreshold,
+                             @Value("${app.ai.resilience.circuit-breaker.slow-call-duration-ms:5000}") long slowCallDurationMs,
+                             @Value("${app.ai.resilience.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                             @Value("${app.ai.resilience.circuit-breaker.minimum-calls:10}") int minimumCalls,
+                             @Value("${app.ai.resilience.circuit-breaker.open-state-ms:30000}") long openStateMs,
+                             @Value("${app.ai.resilience.hedge.delay-ms:0}") long hedgeDelayMs) {
+        this.delegate = delegate;
+        this.enabled = enabled;
+        this.hedgeDelayMs = hedgeDelayMs;
+
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ofMillis(virtualThreads ? virtualThreadsMaxWaitMs : maxWaitMs))
+                .build());
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofMillis(openStateMs))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .build());
+        this.bulkhead = bulkheads.bulkhead(NAME);
+        this.circuitBreaker = circuitBreakers.circuitBreaker(NAME);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("AI circuit breaker {}", event.getStateTransition()));
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+
+        this.hedgeExecutor = enabled && hedgeDelayMs > 0
+                ? Executors.newCachedThreadPool(new CustomizableThreadFactory("AiHedge-"))
+                : null;
+        this.hedges = Counter.builder("ai.client.hedges")
+                .description("Single-prompt AI requests sent a second time after the hedge delay")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (hedgeExecutor != null) {
+            hedgeExecutor.shutdownNow();
+        }
+    }
+
+    @Override
+    public String generate(String prompt) {
+        if (!enabled) {
+            return delegate.generate(prompt);
+        }
+        if (hedgeExecutor == null) {
+            return protect(() -> delegate.generate(prompt));
+        }
+        return hedged(() -> protect(() -> delegate.generate(prompt)));
+    }
+
+    // a batch is not hedged: repeating it would double the largest requests exactly when upstream is slow
+    @Override
+    public List<String> generateBatch(List<String> prompts) {
+        if (!enabled) {
+            return delegate.generateBatch(prompts);
+        }
+        return protect(() -> delegate.generateBatch(prompts));
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> T protect(Supplier<T> call) {
+        try {
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, call)).get();
+        } catch (CallNotPermittedException e) {
+            throw new AiUnavailableException("AI circuit is open", e);
+        } catch (BulkheadFullException e) {
+            throw new AiUnavailableException("Too many concurrent AI requests", e);
+        }
+    }
+
+    private <T> T hedged(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger running = new AtomicInteger(1);
+        hedgeExecutor.execute(() -> attempt(call, result, running));
+        try {
+            try {
+                return result.get(hedgeDelayMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                running.incrementAndGet();
+                hedges.increment();
+                // the slower attempt is left to finish so the breaker records its real outcome
+                hedgeExecutor.execute(() -> attempt(call, result, running));
+                return result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for AI response", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // completes with the first success, or with the last failure once no attempt is left running
+    private static <T> void attempt(Supplier<T> call, CompletableFuture<T> result, AtomicInteger running) {
+        try {
+            result.complete(call.get());
+        } catch (RuntimeException e) {
+            if (running.decrementAndGet() == 0) {
+                result.completeExceptionally(e);
+            }
+        }
+    }
+}
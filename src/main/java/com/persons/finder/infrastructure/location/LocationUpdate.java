@@ -0,0 +1,7 @@
+package com.persons.finder.infrastructure.location;
+
+/**
+ * New coordinates for one person, as written by {@link LocationWriter}.
+ */
+public record LocationUpdate(long id, double latitude, double longitude) {
+}
@@ -0,0 +1,199 @@
+package com.persons.finder.infrastructure.location;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for high-frequency location updates.
+ * Updates are coalesced per person (last write wins) and written as one JDBC batch UPDATE every
+ * flush-interval, or sooner once max-batch-size persons are waiting. Every caller gets a future that
+ * completes when the batch holding its update, or a later one for the same person, has committed.
+ */
+@Slf4j
+@Component
+public class LocationUpdateBuffer {
+
+    private final LocationWriter locationWriter;
+    private final boolean enabled;
+    private final long flushIntervalMs;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<Long, PendingLocation> pending = new ConcurrentHashMap<>();
+    private final Semaphore wakeUp = new Semaphore(0);
+    private ExecutorService flusher;
+    private volatile boolean running;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final AtomicLong lastFlushNanos = new AtomicLong();
+    private final LongAccumulator maxFlushNanos = new LongAccumulator(Math::max, 0);
+
+    public LocationUpdateBuffer(LocationWriter locationWriter,
+                                @Value("${app.location.buffer.enabled:true}") boolean enabled,
+                                @Value("${app.location.buffer.flush-interval-ms:50}") long flushIntervalMs,
+                                @Value("${app.location.buffer.max-batch-size:1000}") int maxBatchSize) {
+        this.locationWriter = locationWriter;
+        this.enabled = enabled;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("LocationFlusher-"));
+        flusher.execute(this::flushLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (flusher != null) {
+            wakeUp.release();
+            flusher.shutdown();
+            try {
+                flusher.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues a location update. The future completes once it has been written, or fails with 404
+     * if the person does not exist.
+     */
+    public CompletableFuture<Void> submit(long id, double latitude, double longitude) {
+        received.increment();
+        if (!running) {
+            CompletableFuture<Void> written = new CompletableFuture<>();
+            write(List.of(new PendingUpdate(id, new PendingLocation(latitude, longitude, written))));
+            return written;
+        }
+        PendingLocation location = pending.compute(id, (key, previous) -> {
+            if (previous == null) {
+                return new PendingLocation(latitude, longitude, new CompletableFuture<>());
+            }
+            // callers waiting on the replaced update are acknowledged by the write that supersedes it
+            coalesced.increment();
+            return new PendingLocation(latitude, longitude, previous.written());
+        });
+        if (!running) {
+            // stop() came in during compute and the final flush may already have run; if the entry is still
+            // there nobody else will write it
+            if (pending.remove(id, location)) {
+                write(List.of(new PendingUpdate(id, location)));
+            }
+            return location.written();
+        }
+        if (pending.size() >= maxBatchSize) {
+            wakeUp.release();
+        }
+        return location.written();
+    }
+
+    public LocationBufferStats stats() {
+        return new LocationBufferStats(pending.size(), received.sum(), coalesced.sum(), flushes.sum(),
+                failedFlushes.sum(), flushedRows.sum(),
+                lastFlushNanos.get() / 1_000_000.0, maxFlushNanos.get() / 1_000_000.0);
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                wakeUp.tryAcquire(flushIntervalMs, TimeUnit.MILLISECONDS);
+                wakeUp.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            flush();
+        }
+        // whatever arrived before shutdown is still written
+        flush();
+    }
+
+    void flush() {
+        List<PendingUpdate> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+        for (Long id : pending.keySet()) {
+            // removing the entry hands it to this flush; a newer update for the id starts a fresh entry
+            PendingLocation location = pending.remove(id);
+            if (location != null) {
+                batch.add(new PendingUpdate(id, location));
+            }
+            if (batch.size() == maxBatchSize) {
+                write(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    private void write(List<PendingUpdate> batch) {
+        long startTime = System.nanoTime();
+        boolean[] written;
+        try {
+            written = locationWriter.write(batch.stream()
+                    .map(update -> new LocationUpdate(update.id(), update.location().latitude(), update.location().longitude()))
+                    .toList());
+        } catch (RuntimeException e) {
+            failedFlushes.increment();
+            log.warn("Location batch of {} updates failed: {}", batch.size(), e.getMessage());
+            batch.forEach(update -> update.location().written().completeExceptionally(e));
+            return;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        flushes.increment();
+        lastFlushNanos.set(elapsed);
+        maxFlushNanos.accumulate(elapsed);
+
+        int rows = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            CompletableFuture<Void> future = batch.get(i).location().written();
+            if (written[i]) {
+                rows++;
+                future.complete(null);
+            } else {
+                future.completeExceptionally(new ResponseStatusException(HttpStatus.NOT_FOUND, "Person not found"));
+            }
+        }
+        flushedRows.add(rows);
+        log.debug("Flushed {} location updates in {}ms", batch.size(), elapsed / 1_000_000);
+    }
+
+    private record PendingLocation(double latitude, double longitude, CompletableFuture<Void> written) {
+    }
+
+    private record PendingUpdate(long id, PendingLocation location) {
+    }
+
+    public record LocationBufferStats(int queueDepth, long received, long coalesced, long flushes, long failedFlushes,
+                                      long flushedRows, double lastFlushMs, double maxFlushMs) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.persons.finder.infrastructure.location;
+
+import com.persons.finder.infrastructure.spatial.NearbyTileCache;
+import com.persons.finder.infrastructure.spatial.PersonSpatialIndex;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes location updates as one JDBC batch UPDATE in one transaction, without loading entities.
+ * Version, updated_at and cell_id are written as a JPA update would, and the spatial index and the nearby tile cache
+ * are refreshed, since neither sees JDBC writes.
+ */
+@Component
+@RequiredArgsConstructor
+public class LocationWriter {
+
+    private static final String UPDATE_LOCATION = "UPDATE persons SET latitude = ?, longitude = ?, cell_id = ?, " +
+            "version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+    private static final String SELECT_LOCATIONS = "SELECT latitude, longitude FROM persons " +
+            "WHERE id IN (:ids) AND latitude IS NOT NULL AND longitude IS NOT NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PersonSpatialIndex spatialIndex;
+    private final NearbyTileCache nearbyTileCache;
+
+    /**
+     * Returns, per update, whether a row was written; false means no person has that id.
+     */
+    public boolean[] write(List<LocationUpdate> updates) {
+        boolean[] written = new boolean[updates.size()];
+        if (updates.isEmpty()) {
+            return written;
+        }
+        List<double[]> previous = new ArrayList<>();
+        int[] counts = transactionTemplate.execute(status -> {
+            if (nearbyTileCache.isEnabled()) {
+                // the tiles around the old coordinates go stale too, and only the database still knows them
+                namedJdbcTemplate.query(SELECT_LOCATIONS,
+                        new MapSqlParameterSource("ids", updates.stream().map(LocationUpdate::id).toList()),
+                        rs -> {
+                            previous.add(new double[]{rs.getDouble(1), rs.getDouble(2)});
+                        });
+            }
+            return jdbcTemplate.batchUpdate(UPDATE_LOCATION, updates, updates.size(),
+                    (ps, update) -> {
+                        ps.setDouble(1, update.latitude());
+                        ps.setDouble(2, update.longitude());
+                        ps.setLong(3, GeoUtils.cellId(update.latitude(), update.longitude()));
+                        ps.setLong(4, update.id());
+                    })[0];
+        });
+        for (double[] location : previous) {
+            nearbyTileCache.invalidate(location[0], location[1]);
+        }
+        for (int i = 0; i < updates.size(); i++) {
+            // drivers may report SUCCESS_NO_INFO (-2) instead of a row count
+            written[i] = counts[i] != 0;
+            if (written[i]) {
+                LocationUpdate update = updates.get(i);
+                spatialIndex.put(update.id(), update.latitude(), update.longitude());
+                nearbyTileCache.invalidate(update.latitude(), update.longitude());
+            }
+        }
+        return written;
+    }
+}
@@ -2,27 +2,50 @@ package com.persons.finder.infrastructure.security;
 
 import com.persons.finder.infrastructure.security.strategy.SanitizeResult;
 import com.persons.finder.infrastructure.security.strategy.SecurityStrategy;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class SecurityManager {
 
     private final List<SecurityStrategy> strategies;
+    // one timer per strategy and direction, indexed like strategies
+    private final Timer[] validateTimers;
+    private final Timer[] sanitizeTimers;
+
+    public SecurityManager(List<SecurityStrategy> strategies, MeterRegistry meterRegistry) {
+        this.strategies = strategies;
+        this.validateTimers = new Timer[strategies.size()];
+        this.sanitizeTimers = new Timer[strategies.size()];
+        for (int i = 0; i < strategies.size(); i++) {
+            String name = strategies.get(i).getClass().getSimpleName();
+            validateTimers[i] = Timer.builder("security.strategy")
+                    .description("Time spent in one security strategy")
+                    .tags("strategy", name, "operation", "validate")
+                    .register(meterRegistry);
+            sanitizeTimers[i] = Timer.builder("security.strategy")
+                    .description("Time spent in one security strategy")
+                    .tags("strategy", name, "operation", "sanitize")
+                    .register(meterRegistry);
+        }
+    }
 
     public void validateInput(String input) {
-        for (SecurityStrategy strategy : strategies) {
-            strategy.validateInput(input);
+        for (int i = 0; i < strategies.size(); i++) {
+            SecurityStrategy strategy = strategies.get(i);
+            validateTimers[i].record(() -> strategy.validateInput(input));
         }
     }
 
     public String sanitizeOutput(String output) {
         String result = output;
-        for (SecurityStrategy strategy : strategies) {
-            SanitizeResult sr = strategy.sanitizeOutput(result);
+        for (int i = 0; i < strategies.size(); i++) {
+            SecurityStrategy strategy = strategies.get(i);
+            String current = result;
+            SanitizeResult sr = sanitizeTimers[i].record(() -> strategy.sanitizeOutput(current));
             result = sr.getValue();
             if (sr.isStopChain()) {
                 break;
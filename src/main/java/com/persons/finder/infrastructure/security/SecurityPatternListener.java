@@ -0,0 +1,38 @@
+package com.persons.finder.infrastructure.security;
+
+import com.persons.finder.domain.model.SecurityPattern;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Recompiles {@link SecurityPatternRegistry} after any JPA write to {@link SecurityPattern} commits.
+ */
+public class SecurityPatternListener {
+
+    private final ObjectProvider<SecurityPatternRegistry> registryProvider;
+
+    public SecurityPatternListener(ObjectProvider<SecurityPatternRegistry> registryProvider) {
+        this.registryProvider = registryProvider;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(SecurityPattern pattern) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registryProvider.getObject().reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registryProvider.getObject().reload();
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.persons.finder.infrastructure.security;
+
+import com.persons.finder.domain.repository.SecurityPatternRepository;
+import com.persons.finder.domain.repository.SecurityPatternVersionRepository;
+import com.persons.finder.infrastructure.security.matcher.AhoCorasickMatcher;
+import com.persons.finder.infrastructure.seed.DataSeededEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Versioned, compiled snapshot of the security_patterns table.
+ * Strategies read the current snapshot through a volatile reference and never touch the database;
+ * {@link #reload()} compiles a fresh snapshot and publishes it in one write. Each node polls the
+ * change version and reloads when it moves, so admin changes made on any node apply everywhere.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SecurityPatternRegistry {
+
+    public static final String INPUT_FILTER = "INPUT_FILTER";
+    public static final String OUTPUT_FILTER = "OUTPUT_FILTER";
+
+    private final SecurityPatternRepository patternRepository;
+    private final SecurityPatternVersionRepository versionRepository;
+
+    private volatile Snapshot snapshot = new Snapshot(0, Map.of(), Instant.EPOCH);
+
+    public AhoCorasickMatcher matcher(String type) {
+        return matcher(snapshot, type);
+    }
+
+    public SecurityPatternStatus status() {
+        Snapshot current = snapshot;
+        return new SecurityPatternStatus(current.version(), matcher(current, INPUT_FILTER).size(),
+                matcher(current, OUTPUT_FILTER).size(), current.loadedAt());
+    }
+
+    @EventListener({ApplicationReadyEvent.class, DataSeededEvent.class})
+    public synchronized void reload() {
+        // read the version first: a change racing with this load leaves the snapshot behind, never ahead
+        long version = versionRepository.currentVersion().orElse(0L);
+        AhoCorasickMatcher input = AhoCorasickMatcher.compile(patternRepository.findPatternsByType(INPUT_FILTER));
+        AhoCorasickMatcher output = AhoCorasickMatcher.compile(patternRepository.findPatternsByType(OUTPUT_FILTER));
+        snapshot = new Snapshot(version, Map.of(INPUT_FILTER, input, OUTPUT_FILTER, output), Instant.now());
+        log.info("Security patterns v{} compiled: {} input, {} output", version, input.size(), output.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.patterns.poll-interval-ms:500}",
+            initialDelayString = "${app.security.patterns.poll-interval-ms:500}")
+    void pollForChanges() {
+        try {
+            long version = versionRepository.currentVersion().orElse(0L);
+            if (version != snapshot.version()) {
+                reload();
+            }
+        } catch (DataAccessException e) {
+            log.warn("Security pattern version check failed: {}", e.getMessage());
+        }
+    }
+
+    private static AhoCorasickMatcher matcher(Snapshot snapshot, String type) {
+        return snapshot.matchers().getOrDefault(type, AhoCorasickMatcher.empty());
+    }
+
+    private record Snapshot(long version, Map<String, AhoCorasickMatcher> matchers, Instant loadedAt) {
+    }
+
+    public record SecurityPatternStatus(long version, int inputPatterns, int outputPatterns, Instant loadedAt) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.persons.finder.infrastructure.security.matcher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable, case-insensitive multi-pattern matcher (Aho–Corasick compiled to a DFA).
+ * Matching is a single pass over the text with one table lookup per character and no allocation,
+ * so the cost does not grow with the number of patterns.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final AhoCorasickMatcher EMPTY = compile(List.of());
+
+    private final String[] patterns;
+    // char -> symbol + 1, 0 when no pattern uses the char
+    private final char[] alphabet;
+    private final int symbols;
+    // state * symbols + symbol -> next state
+    private final int[] delta;
+    // state -> index of a pattern ending here (directly or through a suffix), or -1
+    private final int[] output;
+
+    private AhoCorasickMatcher(String[] patterns, char[] alphabet, int symbols, int[] delta, int[] output) {
+        this.patterns = patterns;
+        this.alphabet = alphabet;
+        this.symbols = symbols;
+        this.delta = delta;
+        this.output = output;
+    }
+
+    public static AhoCorasickMatcher empty() {
+        return EMPTY;
+    }
+
+    public static AhoCorasickMatcher compile(Collection<String> rawPatterns) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String pattern : rawPatterns) {
+            if (pattern != null && !pattern.isEmpty()) {
+                unique.add(pattern);
+            }
+        }
+        String[] patterns = unique.toArray(new String[0]);
+
+        char[] alphabet = new char[Character.MAX_VALUE + 1];
+        int symbols = 0;
+        for (String pattern : patterns) {
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = Character.toLowerCase(pattern.charAt(i));
+                if (alphabet[c] == 0) {
+                    alphabet[c] = (char) ++symbols;
+                }
+            }
+        }
+
+        // 1. trie
+        Map<Long, Integer> edges = new HashMap<>();
+        List<Integer> terminal = new ArrayList<>();
+        terminal.add(-1);
+        for (int p = 0; p < patterns.length; p++) {
+            int state = 0;
+            for (int i = 0; i < patterns[p].length(); i++) {
+                int symbol = alphabet[Character.toLowerCase(patterns[p].charAt(i))] - 1;
+                long edge = ((long) state << 32) | symbol;
+                Integer next = edges.get(edge);
+                if (next == null) {
+                    next = terminal.size();
+                    terminal.add(-1);
+                    edges.put(edge, next);
+                }
+                state = next;
+            }
+            if (terminal.get(state) < 0) {
+                terminal.set(state, p);
+            }
+        }
+
+        // 2. failure links folded into a full transition table, breadth first
+        int states = terminal.size();
+        int width = Math.max(symbols, 1);
+        int[] delta = new int[states * width];
+        int[] output = new int[states];
+        int[] fail = new int[states];
+        Arrays.fill(delta, -1);
+        edges.forEach((edge, next) -> delta[(int) (edge >>> 32) * width + (int) (edge & 0xFFFFFFFFL)] = next);
+
+        int[] queue = new int[states];
+        int head = 0;
+        int tail = 0;
+        output[0] = terminal.get(0);
+        for (int a = 0; a < symbols; a++) {
+            int child = delta[a];
+            if (child < 0) {
+                delta[a] = 0;
+            } else {
+                fail[child] = 0;
+                output[child] = terminal.get(child);
+                queue[tail++] = child;
+            }
+        }
+        while (head < tail) {
+            int state = queue[head++];
+            for (int a = 0; a < symbols; a++) {
+                int index = state * width + a;
+                int child = delta[index];
+                int fallback = delta[fail[state] * width + a];
+                if (child < 0) {
+                    delta[index] = fallback;
+                } else {
+                    fail[child] = fallback;
+                    output[child] = terminal.get(child) >= 0 ? terminal.get(child) : output[fallback];
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return new AhoCorasickMatcher(patterns, alphabet, symbols, delta, output);
+    }
+
+    public boolean isEmpty() {
+        return patterns.length == 0;
+    }
+
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * The first pattern (by end position in the text) contained in text, ignoring case, or null if none matches.
+     */
+    public String findFirst(CharSequence text) {
+        if (text == null || patterns.length == 0) {
+            return null;
+        }
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            int symbol = alphabet[Character.toLowerCase(text.charAt(i))] - 1;
+            if (symbol < 0) {
+                // no pattern contains this char, so every partial match is broken
+                state = 0;
+                continue;
+            }
+            state = delta[state * symbols + symbol];
+            int match = output[state];
+            if (match >= 0) {
+                return patterns[match];
+            }
+        }
+        return null;
+    }
+}
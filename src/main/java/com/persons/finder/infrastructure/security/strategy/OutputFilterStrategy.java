@@ -1,18 +1,26 @@
 package com.persons.finder.infrastructure.security.strategy;
 
-import com.persons.finder.domain.repository.SecurityPatternRepository;
-import lombok.RequiredArgsConstructor;
+import com.persons.finder.infrastructure.security.SecurityPatternRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OutputFilterStrategy implements SecurityStrategy {
 
-    private final SecurityPatternRepository patternRepository;
+    public static final String FALLBACK_BIO = "Dedicated professional with a diverse background.";
+
+    private final SecurityPatternRegistry patternRegistry;
+    private final Counter blocked;
+
+    public OutputFilterStrategy(SecurityPatternRegistry patternRegistry, MeterRegistry meterRegistry) {
+        this.patternRegistry = patternRegistry;
+        this.blocked = Counter.builder("security.output.blocked")
+                .description("AI outputs replaced because they matched an output filter pattern")
+                .register(meterRegistry);
+    }
 
     @Override
     public void validateInput(String input) {
@@ -21,12 +29,12 @@ public class OutputFilterStrategy implements SecurityStrategy {
     @Override
     public SanitizeResult  sanitizeOutput(String output) {
         if (output == null) return null;
-        List<String> patterns = patternRepository.findPatternsByType("OUTPUT_FILTER");
-        for (String pattern : patterns) {
-            if (output.toLowerCase().contains(pattern.toLowerCase())) {
-                log.warn("AI output blocked by pattern: {}", pattern);
-                return new SanitizeResult("Dedicated professional with a diverse background.", true);            }
+        String pattern = patternRegistry.matcher(SecurityPatternRegistry.OUTPUT_FILTER).findFirst(output);
+        if (pattern != null) {
+            log.warn("AI output blocked by pattern: {}", pattern);
+            blocked.increment();
+            return new SanitizeResult(FALLBACK_BIO, true);
         }
         return new SanitizeResult(output, false);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,7 @@
+package com.persons.finder.infrastructure.seed;
+
+/**
+ * Published once {@link DataSeeder} has bulk-loaded persons through JDBC, bypassing JPA listeners.
+ */
+public record DataSeededEvent(long records) {
+}
@@ -1,31 +1,86 @@
 package com.persons.finder.infrastructure.seed;
 
-import lombok.RequiredArgsConstructor;
+import com.persons.finder.infrastructure.util.GeoUtils;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
-import java.util.Random;
-import java.util.UUID;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 @Slf4j
 @Component
 @ConditionalOnProperty(name = "app.seed-data", havingValue = "true")
 @Profile("!test")
-@RequiredArgsConstructor
 public class DataSeeder implements CommandLineRunner {
 
+    private static final String[] FIRST_NAMES = {"Alex", "Sam", "Jordan", "Taylor", "Morgan", "Casey", "Riley", "Jamie",
+            "Avery", "Quinn", "Harper", "Rowan", "Emerson", "Finley", "Hayden", "Kai",
+            "Aria", "Mateo", "Noah", "Mia", "Leo", "Zoe", "Ethan", "Isla",
+            "Hana", "Ravi", "Yuki", "Omar", "Lina", "Sven", "Ana", "Wiremu"};
+    private static final String[] LAST_NAMES = {"Smith", "Chen", "Patel", "Garcia", "Nguyen", "Kim", "Müller", "Rossi",
+            "Silva", "Cohen", "Ngata", "Brown", "Wilson", "Tanaka", "Kowalski", "Ivanova",
+            "Martin", "Lopez", "Singh", "Haddad", "Okafor", "Larsen", "Dubois", "Costa",
+            "Murphy", "Walker", "Young", "Hall", "Khan", "Lee", "Novak", "Moreau"};
+    private static final String[] JOB_TITLES = {"Software Engineer", "Data Scientist", "Product Manager", "Designer",
+            "Nurse", "Teacher", "Accountant", "Electrician", "Chef", "Architect", "Pilot", "Photographer",
+            "Journalist", "Pharmacist", "Mechanic", "Lawyer", "Barista", "Marine Biologist", "Carpenter", "Musician"};
+    private static final String[] HOBBIES = {"Hiking, Coding, Coffee", "Sailing, Chess", "Running, Photography",
+            "Cooking, Travel, Reading", "Climbing, Board games", "Gardening, Cycling", "Surfing, Music",
+            "Painting, Yoga", "Fishing, Camping", "Gaming, Baking", "Skiing, Podcasts", "Pottery, Tennis"};
+    // every combination is built once, so rows share strings instead of allocating their own
+    private static final String[] NAMES = new String[FIRST_NAMES.length * LAST_NAMES.length];
+    private static final String BIO_PLACEHOLDER = "AI generated bio placeholder";
+
+    static {
+        for (int i = 0; i < NAMES.length; i++) {
+            NAMES[i] = FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[i / FIRST_NAMES.length];
+        }
+    }
+
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DatasetSnapshot snapshot;
 
     @Value("${app.seed-data:false}") // default false
     private boolean seedData;
 
+    private final long records;
+    private final int batchSize;
+    private final int parallelism;
+
+    public DataSeeder(JdbcTemplate jdbcTemplate,
+                      ApplicationEventPublisher eventPublisher,
+                      DatasetSnapshot snapshot,
+                      @Value("${app.seed.records:1000000}") long records,
+                      @Value("${app.seed.batch-size:10000}") int batchSize,
+                      @Value("${app.seed.parallelism:0}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.snapshot = snapshot;
+        this.records = records;
+        this.batchSize = Math.max(1, batchSize);
+        // 0 = one loader per core, capped at the default connection budget of 4
+        this.parallelism = parallelism > 0 ? parallelism : Math.min(4, Runtime.getRuntime().availableProcessors());
+    }
+
     @Async
     @Override
     public void run(String... args) throws Exception {
@@ -36,21 +91,39 @@ public class DataSeeder implements CommandLineRunner {
         // 1. check prevent repeated execution
         Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Integer.class);
         if (count != null && count > 0) {
-            log.info("Database already seeded with {} records. Skipping seeder.", count);
-            return;
+            // 2. with snapshots enabled, existing rows were restored from one; reseed if it is stale
+            if (!snapshot.isEnabled()) {
+                log.info("Database already seeded with {} records. Skipping seeder.", count);
+                return;
+            }
+            if (snapshot.isCurrent(records)) {
+                log.info("Database restored from snapshot with {} records. Skipping seeder.", count);
+                eventPublisher.publishEvent(new DataSeededEvent(count));
+                return;
+            }
+            log.info("Snapshot does not match the current schema or seed size. Seeding again.");
+            jdbcTemplate.execute("TRUNCATE TABLE security_patterns RESTART IDENTITY");
+            jdbcTemplate.execute("TRUNCATE TABLE persons RESTART IDENTITY");
         }
 
-        log.info("Starting high-performance data seeding for 1,000,000 records...");
+        log.info("Starting data seeding for {} records ({} loaders, batches of {})...", records, parallelism, batchSize);
         long startTime = System.currentTimeMillis();
 
-        // 2. init blacklist
+        // 3. init blacklist
         seedSecurityPatterns();
 
-        // 3. write person data in batches
+        // 4. write person data in parallel partitions
         seedPersonData();
 
-        long endTime = System.currentTimeMillis();
-        log.info("Successfully seeded 1,000,000 records in {} seconds.", (endTime - startTime) / 1000.0);
+        long elapsed = Math.max(1, System.currentTimeMillis() - startTime);
+        log.info("Successfully seeded {} records in {} seconds ({} rows/sec).",
+                records, elapsed / 1000.0, records * 1000 / elapsed);
+
+        // 5. keep the result for the next start
+        snapshot.save(records);
+
+        // 6. JDBC inserts bypass JPA listeners, so in-memory views must reload
+        eventPublisher.publishEvent(new DataSeededEvent(records));
 
     }
 
@@ -63,37 +136,75 @@ public class DataSeeder implements CommandLineRunner {
                 "('bypass', 'OUTPUT_FILTER', 'Security bypass detection')");
     }
 
-    private void seedPersonData() {
-        String sql = "INSERT INTO persons (name, job_title, hobbies, bio, latitude, longitude, version, created_at) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
-
-        Random random = new Random();
-        int totalRecords = 1_000_000;
-        int batchSize = 10_000; // submit once for 10,000 items
-
-        for (int i = 0; i < totalRecords / batchSize; i++) {
-            jdbcTemplate.batchUpdate(sql, new org.springframework.jdbc.core.BatchPreparedStatementSetter() {
-                @Override
-                public void setValues(java.sql.PreparedStatement ps, int j) throws java.sql.SQLException {
-                    ps.setString(1, "Person_" + UUID.randomUUID().toString().substring(0, 8));
-                    ps.setString(2, "Engineer_" + j);
-                    ps.setString(3, "Hiking, Coding, Coffee");
-                    ps.setString(4, "AI generated bio placeholder for " + j);
-                    // 随机生成全球坐标 (Lat: -90 to 90, Lon: -180 to 180)
-                    ps.setDouble(5, -90 + (180 * random.nextDouble()));
-                    ps.setDouble(6, -180 + (360 * random.nextDouble()));
-                    ps.setLong(7, 0L);
-                }
+    /**
+     * Splits the rows 1..records into one contiguous partition per loader; each loader streams its
+     * partition through its own connection in committed JDBC batches. Ids still come from the identity
+     * column and the location indexes stay in place, because the app is already serving while this runs.
+     */
+    private void seedPersonData() throws InterruptedException {
+        AtomicLong progress = new AtomicLong();
+        long partition = (records + parallelism - 1) / parallelism;
+
+        ExecutorService loaders = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("SeedLoader-"));
+        try {
+            List<Future<?>> partitions = new ArrayList<>();
+            for (long from = 1; from <= records; from += partition) {
+                long first = from;
+                long last = Math.min(records, from + partition - 1);
+                partitions.add(loaders.submit(() -> loadPartition(first, last, progress)));
+            }
+            for (Future<?> future : partitions) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding persons failed", e.getCause());
+        } finally {
+            loaders.shutdownNow();
+        }
+    }
 
-                @Override
-                public int getBatchSize() {
-                    return batchSize;
+    private void loadPartition(long first, long last, AtomicLong progress) {
+        String sql = "INSERT INTO persons (name, job_title, hobbies, bio, bio_status, latitude, longitude, cell_id, version, " +
+                "created_at) VALUES (?, ?, ?, ?, 'READY', ?, ?, ?, 0, CURRENT_TIMESTAMP)";
+        long reportEvery = Math.max(records / 10, 1);
+
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            // seeded per partition, so the same settings always produce the same dataset
+            SplittableRandom random = new SplittableRandom(first);
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (long row = first; row <= last; row++) {
+                    ps.setString(1, NAMES[(int) (row % NAMES.length)]);
+                    ps.setString(2, JOB_TITLES[(int) (row % JOB_TITLES.length)]);
+                    ps.setString(3, HOBBIES[(int) (row % HOBBIES.length)]);
+                    ps.setString(4, BIO_PLACEHOLDER);
+                    // 随机生成全球坐标 (Lat: -90 to 90, Lon: -180 to 180)
+                    double lat = -90 + (180 * random.nextDouble());
+                    double lon = -180 + (360 * random.nextDouble());
+                    ps.setDouble(5, lat);
+                    ps.setDouble(6, lon);
+                    ps.setLong(7, GeoUtils.cellId(lat, lon));
+                    ps.addBatch();
+
+                    if (++pending == batchSize || row == last) {
+                        ps.executeBatch();
+                        connection.commit();
+                        long done = progress.addAndGet(pending);
+                        if (done / reportEvery != (done - pending) / reportEvery) {
+                            log.info("Progress: {} records seeded...", done);
+                        }
+                        pending = 0;
+                    }
                 }
-            });
-
-            if ((i + 1) * batchSize % 100_000 == 0) {
-                log.info("Progress: {} records seeded...", (i + 1) * batchSize);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
-        }
+            return null;
+        });
     }
 }
@@ -0,0 +1,136 @@
+package com.persons.finder.infrastructure.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * Binary snapshot of the seeded H2 database: an online BACKUP of the database file, taken once seeding
+ * has finished. {@link DatasetSnapshotRestorer} unpacks it before the connection pool starts, so a restart
+ * opens a ready database instead of generating the rows again.
+ * <p>
+ * A sidecar properties file records the schema hash and seed size the snapshot was taken with. Hibernate
+ * migrates a restored schema on startup, so a mismatch is detected here and the seeder starts over.
+ */
+@Slf4j
+@Component
+public class DatasetSnapshot {
+
+    // part of the hash, bump when the snapshot layout itself changes
+    private static final int FORMAT = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Path file;
+    private final Path metadataFile;
+
+    public DatasetSnapshot(JdbcTemplate jdbcTemplate,
+                           @Value("${app.seed.snapshot.enabled:false}") boolean enabled,
+                           @Value("${app.seed.snapshot.path:data/persons-snapshot.zip}") Path file) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.file = file.toAbsolutePath();
+        this.metadataFile = metadataFile(this.file);
+    }
+
+    static Path metadataFile(Path snapshot) {
+        return snapshot.resolveSibling(snapshot.getFileName() + ".properties");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * True when the current database was restored from a snapshot taken with this schema and seed size.
+     */
+    public boolean isCurrent(long records) {
+        if (!enabled || !Files.isReadable(metadataFile)) {
+            return false;
+        }
+        Properties metadata = new Properties();
+        try (Reader reader = Files.newBufferedReader(metadataFile, StandardCharsets.UTF_8)) {
+            metadata.load(reader);
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable snapshot metadata {}: {}", metadataFile, e.getMessage());
+            return false;
+        }
+        return schemaHash().equals(metadata.getProperty("schema"))
+                && String.valueOf(records).equals(metadata.getProperty("records"));
+    }
+
+    /**
+     * Backs the database up to the snapshot file. The backup goes to a temporary file first and the
+     * metadata is written last, so a crash never leaves a snapshot that looks valid but is not.
+     */
+    public void save(long records) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.deleteIfExists(metadataFile);
+            Files.deleteIfExists(temp);
+            jdbcTemplate.execute("BACKUP TO '" + temp.toString().replace("'", "''") + "'");
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            Properties metadata = new Properties();
+            metadata.setProperty("schema", schemaHash());
+            metadata.setProperty("records", String.valueOf(records));
+            try (Writer writer = Files.newBufferedWriter(metadataFile, StandardCharsets.UTF_8)) {
+                metadata.store(writer, "Seeded dataset snapshot");
+            }
+            log.info("Wrote dataset snapshot {} ({} MB) in {} seconds.", file, Files.size(file) / (1024 * 1024),
+                    (System.currentTimeMillis() - start) / 1000.0);
+        } catch (IOException | DataAccessException e) {
+            log.warn("Could not write dataset snapshot {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Hash of the column and index definitions of the seeded tables, as currently created by Hibernate.
+     */
+    String schemaHash() {
+        StringBuilder schema = new StringBuilder("format=").append(FORMAT).append('\n');
+        jdbcTemplate.query("SELECT TABLE_NAME, COLUMN_NAME, DATA_TYPE, IS_NULLABLE FROM INFORMATION_SCHEMA.COLUMNS " +
+                        "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME IN ('PERSONS', 'SECURITY_PATTERNS') " +
+                        "ORDER BY TABLE_NAME, ORDINAL_POSITION",
+                rs -> {
+                    schema.append(rs.getString(1)).append('.').append(rs.getString(2)).append(' ')
+                            .append(rs.getString(3)).append(' ').append(rs.getString(4)).append('\n');
+                });
+        // generated index names differ between databases, so indexes are identified by type and columns
+        jdbcTemplate.query("SELECT i.TABLE_NAME, i.INDEX_TYPE_NAME, " +
+                        "LISTAGG(c.COLUMN_NAME, ',') WITHIN GROUP (ORDER BY c.ORDINAL_POSITION) AS COLUMNS " +
+                        "FROM INFORMATION_SCHEMA.INDEXES i JOIN INFORMATION_SCHEMA.INDEX_COLUMNS c " +
+                        "ON c.INDEX_SCHEMA = i.INDEX_SCHEMA AND c.INDEX_NAME = i.INDEX_NAME " +
+                        "WHERE i.TABLE_SCHEMA = 'PUBLIC' AND i.TABLE_NAME IN ('PERSONS', 'SECURITY_PATTERNS') " +
+                        "GROUP BY i.TABLE_NAME, i.INDEX_NAME, i.INDEX_TYPE_NAME ORDER BY 1, 3, 2",
+                rs -> {
+                    schema.append(rs.getString(1)).append(' ').append(rs.getString(2)).append(" (")
+                            .append(rs.getString(3)).append(")\n");
+                });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(schema.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.persons.finder.infrastructure.seed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Resets the working database file to the seeded snapshot before any bean, and so the connection pool,
+ * is created. Every start therefore begins from the same dataset; without a snapshot the working file is
+ * removed and the seeder builds one.
+ */
+@Slf4j
+@Component
+public class DatasetSnapshotRestorer implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!environment.getProperty("app.seed.snapshot.enabled", Boolean.class, false)) {
+            return;
+        }
+        Path snapshot = Path.of(environment.getProperty("app.seed.snapshot.path", "data/persons-snapshot.zip")).toAbsolutePath();
+        Path database = Path.of(environment.getProperty("app.seed.snapshot.database", "data/work/persons")).toAbsolutePath();
+        restore(snapshot, database);
+    }
+
+    /**
+     * Replaces the H2 files of database (path without extension) with the contents of the snapshot.
+     * Returns false when there is no complete snapshot and the database was only cleared.
+     */
+    static boolean restore(Path snapshot, Path database) {
+        long start = System.currentTimeMillis();
+        Path directory = database.getParent();
+        String name = database.getFileName().toString();
+        try {
+            Files.createDirectories(directory);
+            Files.deleteIfExists(directory.resolve(name + ".mv.db"));
+            Files.deleteIfExists(directory.resolve(name + ".trace.db"));
+            if (!Files.isReadable(snapshot) || !Files.isReadable(DatasetSnapshot.metadataFile(snapshot))) {
+                return false;
+            }
+            try (ZipInputStream zip = new ZipInputStream(Files.newInputStream(snapshot))) {
+                for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+                    // BACKUP stores the database file under its own name; only the extension is kept
+                    String entryName = Path.of(entry.getName()).getFileName().toString();
+                    if (!entry.isDirectory() && entryName.endsWith(".mv.db")) {
+                        Files.copy(zip, directory.resolve(name + ".mv.db"), StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not restore dataset snapshot " + snapshot, e);
+        }
+        log.info("Restored dataset snapshot {} in {} seconds.", snapshot, (System.currentTimeMillis() - start) / 1000.0);
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package com.persons.finder.infrastructure.spatial;
+
+/**
+ * Fixed-capacity max-heap of (distance, id) pairs that keeps the k smallest entries offered.
+ * Ties on distance are broken by id so results are deterministic.
+ */
+final class BoundedMaxHeap {
+
+    private final double[] distances;
+    private final long[] ids;
+    private int size;
+
+    BoundedMaxHeap(int capacity) {
+        this.distances = new double[capacity];
+        this.ids = new long[capacity];
+    }
+
+    boolean isFull() {
+        return size == ids.length;
+    }
+
+    /**
+     * Largest distance kept so far, or +infinity until the heap is full.
+     */
+    double worstDistance() {
+        return isFull() ? distances[0] : Double.POSITIVE_INFINITY;
+    }
+
+    void offer(double distance, long id) {
+        if (size < ids.length) {
+            distances[size] = distance;
+            ids[size] = id;
+            siftUp(size++);
+        } else if (ids.length > 0 && less(distance, id, distances[0], ids[0])) {
+            distances[0] = distance;
+            ids[0] = id;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Drains the heap, returning the kept entries ordered from nearest to farthest.
+     */
+    PersonSpatialIndex.Neighbors drainAscending() {
+        long[] resultIds = new long[size];
+        double[] resultDistances = new double[size];
+        for (int i = size - 1; i >= 0; i--) {
+            resultIds[i] = ids[0];
+            resultDistances[i] = distances[0];
+            size--;
+            distances[0] = distances[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+        return new PersonSpatialIndex.Neighbors(resultIds, resultDistances);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(distances[parent], ids[parent], distances[i], ids[i])) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left;
+            int right = left + 1;
+            if (right < size && less(distances[left], ids[left], distances[right], ids[right])) {
+                largest = right;
+            }
+            if (!less(distances[i], ids[i], distances[largest], ids[largest])) {
+                return;
+            }
+            swap(i, largest);
+            i = largest;
+        }
+    }
+
+    private static boolean less(double d1, long id1, double d2, long id2) {
+        return d1 < d2 || (d1 == d2 && id1 < id2);
+    }
+
+    private void swap(int a, int b) {
+        double d = distances[a];
+        distances[a] = distances[b];
+        distances[b] = d;
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
@@ -0,0 +1,114 @@
+package com.persons.finder.infrastructure.spatial;
+
+import com.persons.finder.infrastructure.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills in cell_id for rows written before the column existed, walking the primary key in windows of
+ * batch-size ids with one JDBC batch UPDATE and commit each, so the table is never locked as a whole. Each update only
+ * applies while the row still has the coordinates its cell id was computed from, so a concurrent location
+ * write always wins.
+ * Until a pass finds nothing left to fill, cell-backed queries fall back to the latitude/longitude index.
+ */
+@Slf4j
+@Component
+public class CellIdBackfill {
+
+    private static final String ANY_MISSING = "SELECT id FROM persons " +
+            "WHERE cell_id IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL LIMIT 1";
+    // no cell_id IS NULL here: H2 would answer it from idx_cell, and re-read every row still missing one per window
+    private static final String SELECT_WINDOW = "SELECT id, latitude, longitude, cell_id FROM persons WHERE id > ? AND id <= ?";
+    private static final String UPDATE_CELL = "UPDATE persons SET cell_id = ? WHERE id = ? AND latitude = ? AND longitude = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong backfilled = new AtomicLong();
+    private volatile boolean complete;
+
+    public CellIdBackfill(JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${app.cell-index.backfill.enabled:true}") boolean enabled,
+                          @Value("${app.cell-index.backfill.batch-size:10000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * True once every located person has a cell id.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            run();
+        }
+    }
+
+    /**
+     * Backfills every row still missing a cell id and returns the resulting status. Returns at once if a
+     * backfill is already running.
+     */
+    public CellBackfillStatus run() {
+        if (!running.compareAndSet(false, true)) {
+            return status();
+        }
+        try {
+            long startTime = System.currentTimeMillis();
+            long rows = 0;
+            Long maxId = jdbcTemplate.queryForList(ANY_MISSING, Long.class).isEmpty()
+                    ? null
+                    : jdbcTemplate.queryForObject("SELECT MAX(id) FROM persons", Long.class);
+            for (long from = 0; maxId != null && from < maxId; from += batchSize) {
+                List<Object[]> batch = new ArrayList<>();
+                jdbcTemplate.query(SELECT_WINDOW, rs -> {
+                    Double lat = rs.getObject(2, Double.class);
+                    Double lon = rs.getObject(3, Double.class);
+                    if (lat != null && lon != null && rs.getObject(4) == null) {
+                        batch.add(new Object[]{GeoUtils.cellId(lat, lon), rs.getLong(1), lat, lon});
+                    }
+                }, from, from + batchSize);
+                if (!batch.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_CELL, batch));
+                    rows += batch.size();
+                    backfilled.addAndGet(batch.size());
+                }
+            }
+            complete = true;
+            if (rows > 0) {
+                log.info("Backfilled cell ids of {} persons in {}ms", rows, System.currentTimeMillis() - startTime);
+            }
+        } finally {
+            running.set(false);
+        }
+        return status();
+    }
+
+    public CellBackfillStatus status() {
+        return new CellBackfillStatus(complete, running.get(), backfilled.get());
+    }
+
+    public record CellBackfillStatus(boolean complete, boolean running, long backfilled) {
+    }
+}
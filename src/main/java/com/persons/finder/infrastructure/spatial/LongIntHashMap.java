@@ -0,0 +1,108 @@
+package com.persons.finder.infrastructure.spatial;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing long -> int map (linear probing), so the index never boxes ids or cell keys.
+ * Not thread-safe; callers guard it with their own lock.
+ */
+final class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(long key) {
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return MISSING;
+            if (k == key) return values[i];
+            i = (i + 1) & mask;
+        }
+    }
+
+    void put(long key, int value) {
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                values[i] = value;
+                return;
+            }
+            if (k == EMPTY) {
+                keys[i] = key;
+                values[i] = value;
+                if (++size * 2 > keys.length) {
+                    resize(keys.length << 1);
+                }
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    int remove(long key) {
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == EMPTY) return MISSING;
+            if (k == key) break;
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        // backward-shift deletion keeps probe chains intact without tombstones
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long k = keys[j];
+            if (k == EMPTY) break;
+            int ideal = slot(k);
+            boolean inChain = i <= j ? (i < ideal && ideal <= j) : (i < ideal || ideal <= j);
+            if (inChain) continue;
+            keys[i] = k;
+            values[i] = values[j];
+            i = j;
+        }
+        keys[i] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+}
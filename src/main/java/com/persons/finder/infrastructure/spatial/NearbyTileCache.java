@@ -0,0 +1,359 @@
+package com.persons.finder.infrastructure.spatial;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.persons.finder.domain.model.Location;
+import com.persons.finder.dto.PersonFields;
+import com.persons.finder.dto.PersonFields.Field;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.infrastructure.seed.DataSeededEvent;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Nearby-search results keyed on a quantized tile: the center snapped to a tile-degrees grid, the radius rounded
+ * up to a radius-step-km bucket, plus fields. A tile holds every person within the bucket radius plus the tile's
+ * half-diagonal of its center, which covers the circle of any query snapped to it; each query is then filtered and
+ * ordered against its own center and radius, so a cached answer is the same as an uncached one. Tiles with more
+ * than max-tile-rows persons are only remembered as too dense and always searched directly. Bounded by the total
+ * number of cached rows (W-TinyLFU).
+ * <p>
+ * A write invalidates only the tiles whose bounding box contains the old or new coordinates: entries are indexed
+ * by the 1-degree cells their box covers. A per-cell write stamp is read before and after a load, so a result
+ * computed while a covering write committed is dropped instead of being kept.
+ */
+@Component
+public class NearbyTileCache {
+
+    private static final double INDEX_CELL_DEGREES = 1;
+    private static final int MAX_INDEX_CELLS = 16;
+    private static final int STAMP_STRIPES = 1024;
+
+    // tie-break on id, as the spatial index does
+    private static final Comparator<Neighbor> NEAREST_FIRST = Comparator.comparingDouble(Neighbor::distance)
+            .thenComparingLong(neighbor -> neighbor.person().id());
+
+    /**
+     * Runs the nearby search, nearest first; the cache calls it for a bypassed query and for a tile's persons.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Slice<PersonResponse> load(double lat, double lon, double radiusKm, Pageable pageable, PersonFields fields);
+    }
+
+    private final boolean enabled;
+    private final double tileDegrees;
+    private final double radiusStepKm;
+    private final double maxRadiusKm;
+    private final int maxTileRows;
+    // farthest a query center snapped to a tile can be from the tile center, at the equator where it is widest
+    private final double tileHalfDiagonalKm;
+    private final Cache<TileKey, Tile> cache;
+
+    private final Map<Long, Set<TileKey>> keysByCell = new ConcurrentHashMap<>();
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public NearbyTileCache(@Value("${app.nearby-cache.enabled:true}") boolean enabled,
+                           @Value("${app.nearby-cache.max-rows:200000}") long maxRows,
+                           @Value("${app.nearby-cache.ttl-minutes:10}") long ttlMinutes,
+                           @Value("${app.nearby-cache.tile-degrees:0.001}") double tileDegrees,
+                           @Value("${app.nearby-cache.radius-step-km:0.1}") double radiusStepKm,
+                           @Value("${app.nearby-cache.max-radius-km:50}") double maxRadiusKm,
+                           @Value("${app.nearby-cache.max-tile-rows:2000}") int maxTileRows) {
+        this.enabled = enabled;
+        this.tileDegrees = tileDegrees;
+        this.radiusStepKm = radiusStepKm;
+        this.maxRadiusKm = maxRadiusKm;
+        this.maxTileRows = maxTileRows;
+        this.tileHalfDiagonalKm = GeoUtils.distanceKm(0, 0, tileDegrees / 2, tileDegrees / 2);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxRows)
+                .weigher((TileKey key, Tile tile) -> tile.persons().size() + 1)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                // runs atomically with the eviction, so it cannot race a put of the same key
+                .evictionListener((TileKey key, Tile tile, RemovalCause cause) -> {
+                    evictions.increment();
+                    unregister(key);
+                })
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Slice<PersonResponse> get(double lat, double lon, double radiusKm, Pageable pageable,
+                                     PersonFields fields, Loader loader) {
+        if (!enabled || radiusKm <= 0 || radiusKm > maxRadiusKm || inWriteTransaction()) {
+            return loader.load(lat, lon, radiusKm, pageable, fields);
+        }
+        TileKey key = new TileKey(Math.round(lat / tileDegrees), Math.round(lon / tileDegrees),
+                // tolerate float noise such as 1.1 / 0.1 = 11.000000000000002
+                (int) Math.ceil(radiusKm / radiusStepKm - 1e-9),
+                withLocation(fields));
+        long[] cells = cells(key);
+        if (cells == null) {
+            return loader.load(lat, lon, radiusKm, pageable, fields);
+        }
+
+        Tile tile = cache.getIfPresent(key);
+        if (tile != null && tile.complete()) {
+            hits.increment();
+        } else {
+            misses.increment();
+            if (tile == null) {
+                tile = load(key, cells, loader);
+            }
+            if (!tile.complete()) {
+                // too many persons around this tile to hold them: search for this query alone
+                return loader.load(lat, lon, radiusKm, pageable, fields);
+            }
+        }
+        return page(tile, lat, lon, radiusKm, pageable, fields);
+    }
+
+    private Tile load(TileKey key, long[] cells, Loader loader) {
+        long stamp = stamp(cells);
+        Slice<PersonResponse> persons = loader.load(key.lat(tileDegrees), key.lon(tileDegrees),
+                key.radiusKm(radiusStepKm) + tileHalfDiagonalKm, PageRequest.of(0, maxTileRows), key.fields());
+        // a fresh instance even when empty, so the identity check below only ever matches our own put
+        Tile loaded = new Tile(persons.hasNext() ? List.of() : persons.getContent(), !persons.hasNext());
+        cache.asMap().compute(key, (k, previous) -> {
+            register(k, cells);
+            return loaded;
+        });
+        if (stamp(cells) != stamp) {
+            // a write in this tile committed while we were loading: our result may predate it
+            cache.asMap().computeIfPresent(key, (k, current) -> {
+                if (current != loaded) {
+                    return current;
+                }
+                unregister(k);
+                return null;
+            });
+        }
+        return loaded;
+    }
+
+    // the query's own circle and order, cut from the tile's persons
+    private static Slice<PersonResponse> page(Tile tile, double lat, double lon, double radiusKm, Pageable pageable,
+                                              PersonFields fields) {
+        List<Neighbor> within = new ArrayList<>();
+        for (PersonResponse person : tile.persons()) {
+            double distance = GeoUtils.distanceKm(lat, lon, person.location().getLatitude(), person.location().getLongitude());
+            if (distance <= radiusKm) {
+                within.add(new Neighbor(person, distance));
+            }
+        }
+        within.sort(NEAREST_FIRST);
+        int from = (int) Math.min(pageable.getOffset(), within.size());
+        int to = Math.min(from + pageable.getPageSize(), within.size());
+        boolean location = fields.includes(Field.LOCATION);
+        List<PersonResponse> content = new ArrayList<>(to - from);
+        for (Neighbor neighbor : within.subList(from, to)) {
+            PersonResponse person = neighbor.person();
+            content.add(location ? person : new PersonResponse(person.id(), person.name(), person.jobTitle(),
+                    person.hobbies(), person.bio(), person.bioStatus(), null, person.createdAt()));
+        }
+        return new SliceImpl<>(content, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()),
+                to < within.size());
+    }
+
+    // a tile needs every person's coordinates to filter them for each query
+    private static PersonFields withLocation(PersonFields fields) {
+        if (fields.includes(Field.LOCATION)) {
+            return fields;
+        }
+        Set<Field> selected = EnumSet.copyOf(fields.selected());
+        selected.add(Field.LOCATION);
+        return new PersonFields(selected);
+    }
+
+    /**
+     * Drops the tiles that could contain a person at (lat, lon). Inside a transaction this happens on commit;
+     * until then other readers still see, and may cache, the previous state.
+     */
+    public void invalidate(double lat, double lon) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateNow(lat, lon);
+                }
+            });
+        } else {
+            invalidateNow(lat, lon);
+        }
+    }
+
+    public void invalidate(Location location) {
+        if (location != null && location.getLatitude() != null && location.getLongitude() != null) {
+            invalidate(location.getLatitude(), location.getLongitude());
+        }
+    }
+
+    @EventListener(DataSeededEvent.class)
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        // index first: a put in between leaves at most an index entry without a cached slice
+        keysByCell.clear();
+        cache.invalidateAll();
+    }
+
+    public NearbyCacheStats stats() {
+        return new NearbyCacheStats(hits.sum(), misses.sum(), invalidations.sum(), evictions.sum(),
+                cache.estimatedSize());
+    }
+
+    // such a caller may see its own uncommitted writes, which must neither be cached nor hidden by the cache
+    private static boolean inWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void invalidateNow(double lat, double lon) {
+        long cell = cell(row(lat), col(lon));
+        stamps.incrementAndGet(stripe(cell));
+        Set<TileKey> keys = keysByCell.get(cell);
+        if (keys == null) {
+            return;
+        }
+        for (TileKey key : keys) {
+            GeoUtils.BoundingBox box = box(key);
+            if (lat >= box.minLat() && lat <= box.maxLat() && lon >= box.minLon() && lon <= box.maxLon()) {
+                cache.asMap().compute(key, (k, slice) -> {
+                    if (slice != null) {
+                        invalidations.increment();
+                    }
+                    unregister(k);
+                    return null;
+                });
+            }
+        }
+    }
+
+    private void register(TileKey key, long[] cells) {
+        for (long cell : cells) {
+            keysByCell.computeIfAbsent(cell, c -> ConcurrentHashMap.newKeySet()).add(key);
+        }
+    }
+
+    private void unregister(TileKey key) {
+        long[] cells = cells(key);
+        for (long cell : cells) {
+            keysByCell.computeIfPresent(cell, (c, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private long stamp(long[] cells) {
+        long sum = epoch.get();
+        for (long cell : cells) {
+            sum += stamps.get(stripe(cell));
+        }
+        return sum;
+    }
+
+    /**
+     * The index cells covered by the tile's bounding box, or null when the box is too wide to be worth caching.
+     */
+    private long[] cells(TileKey key) {
+        GeoUtils.BoundingBox box = box(key);
+        int minRow = row(box.minLat());
+        int maxRow = row(box.maxLat());
+        int minCol = col(box.minLon());
+        int maxCol = col(box.maxLon());
+        long count = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (count > MAX_INDEX_CELLS) {
+            return null;
+        }
+        long[] cells = new long[(int) count];
+        int i = 0;
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                cells[i++] = cell(row, col);
+            }
+        }
+        return cells;
+    }
+
+    private GeoUtils.BoundingBox box(TileKey key) {
+        return GeoUtils.calculateBoundingBox(key.lat(tileDegrees), key.lon(tileDegrees),
+                key.radiusKm(radiusStepKm) + tileHalfDiagonalKm);
+    }
+
+    private static int row(double lat) {
+        return (int) Math.floor(lat / INDEX_CELL_DEGREES);
+    }
+
+    private static int col(double lon) {
+        return (int) Math.floor(lon / INDEX_CELL_DEGREES);
+    }
+
+    private static long cell(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static int stripe(long cell) {
+        return (int) (cell ^ (cell >>> 29)) * 0x9E3779B9 >>> 22;
+    }
+
+    record TileKey(long latTile, long lonTile, int radiusSteps, PersonFields fields) {
+
+        double lat(double tileDegrees) {
+            return latTile * tileDegrees;
+        }
+
+        double lon(double tileDegrees) {
+            return lonTile * tileDegrees;
+        }
+
+        double radiusKm(double radiusStepKm) {
+            return radiusSteps * radiusStepKm;
+        }
+    }
+
+    /**
+     * Every person around a tile, or none when there were more than max-tile-rows of them.
+     */
+    private record Tile(List<PersonResponse> persons, boolean complete) {
+    }
+
+    private record Neighbor(PersonResponse person, double distance) {
+    }
+
+    public record NearbyCacheStats(long hits, long misses, long invalidations, long evictions, long size) {
+    }
+}
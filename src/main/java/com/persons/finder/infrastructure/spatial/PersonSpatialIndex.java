@@ -0,0 +1,488 @@
+package com.persons.finder.infrastructure.spatial;
+
+import com.persons.finder.infrastructure.seed.DataSeededEvent;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory uniform grid over person coordinates.
+ * Each cell keeps ids and coordinates in parallel primitive arrays, so a nearby search only
+ * touches the cells covered by the bounding box and never materializes entities.
+ */
+@Slf4j
+@Component
+public class PersonSpatialIndex {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final double cellSize;
+    private final int rows;
+    private final int cols;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<Cell> cells = new ArrayList<>();
+    private LongIntHashMap cellByKey = new LongIntHashMap(1024);
+    private LongIntHashMap cellById = new LongIntHashMap(1024);
+
+    private volatile boolean ready;
+
+    public PersonSpatialIndex(JdbcTemplate jdbcTemplate,
+                              @Value("${app.spatial-index.enabled:true}") boolean enabled,
+                              @Value("${app.spatial-index.cell-size-degrees:0.1}") double cellSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.cellSize = cellSize;
+        this.rows = (int) Math.ceil(180 / cellSize) + 1;
+        this.cols = (int) Math.ceil(360 / cellSize) + 1;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, DataSeededEvent.class})
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        int persons;
+        int cellCount;
+        ready = false;
+        lock.writeLock().lock();
+        try {
+            cells.clear();
+            cellByKey = new LongIntHashMap(1024);
+            cellById = new LongIntHashMap(1024);
+            jdbcTemplate.query(
+                    "SELECT id, latitude, longitude FROM persons WHERE latitude IS NOT NULL AND longitude IS NOT NULL",
+                    rs -> {
+                        insert(rs.getLong(1), rs.getDouble(2), rs.getDouble(3));
+                    });
+            ready = true;
+            persons = cellById.size();
+            cellCount = cells.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Spatial index built with {} persons in {} cells in {}ms",
+                persons, cellCount, System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * Re-reads the committed coordinates of one person, e.g. after a transaction that touched it rolled back.
+     */
+    public void refresh(long id) {
+        if (!enabled) {
+            return;
+        }
+        List<double[]> coordinates = jdbcTemplate.query(
+                "SELECT latitude, longitude FROM persons WHERE id = ? AND latitude IS NOT NULL AND longitude IS NOT NULL",
+                (rs, i) -> new double[]{rs.getDouble(1), rs.getDouble(2)}, id);
+        if (coordinates.isEmpty()) {
+            remove(id);
+        } else {
+            put(id, coordinates.get(0)[0], coordinates.get(0)[1]);
+        }
+    }
+
+    public void put(long id, double lat, double lon) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(id);
+            insert(id, lat, lon);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            delete(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return cellById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids within radiusKm of (lat, lon), ordered by distance then id, skipping offset and returning at most limit.
+     */
+    public long[] findWithin(double lat, double lon, double radiusKm, int offset, int limit) {
+        var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+        Candidates candidates = new Candidates();
+
+        lock.readLock().lock();
+        try {
+            int minRow = row(box.minLat());
+            int maxRow = row(box.maxLat());
+            int minCol = col(box.minLon());
+            int maxCol = col(box.maxLon());
+            long span = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+            if (span > cells.size()) {
+                // huge radius: walking the occupied cells is cheaper than probing every key in the box
+                for (Cell cell : cells) {
+                    collect(cell, lat, lon, radiusKm, box, candidates);
+                }
+            } else {
+                for (int r = minRow; r <= maxRow; r++) {
+                    for (int c = minCol; c <= maxCol; c++) {
+                        int index = cellByKey.get(key(r, c));
+                        if (index != LongIntHashMap.MISSING) {
+                            collect(cells.get(index), lat, lon, radiusKm, box, candidates);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (offset >= candidates.size) {
+            return new long[0];
+        }
+        candidates.sort();
+        int end = (int) Math.min((long) offset + limit, candidates.size);
+        return Arrays.copyOfRange(candidates.ids, offset, end);
+    }
+
+    /**
+     * Keyset variant of {@link #findWithin}: the first limit persons within radiusKm that sort strictly after
+     * (afterDistance, afterId). Only a heap of limit entries is kept, so deep pages cost the same as the first.
+     */
+    public Neighbors findWithinAfter(double lat, double lon, double radiusKm,
+                                     double afterDistance, long afterId, int limit) {
+        var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+        BoundedMaxHeap heap = new BoundedMaxHeap(limit);
+
+        lock.readLock().lock();
+        try {
+            int minRow = row(box.minLat());
+            int maxRow = row(box.maxLat());
+            int minCol = col(box.minLon());
+            int maxCol = col(box.maxLon());
+            long span = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+            if (span > cells.size()) {
+                for (Cell cell : cells) {
+                    offerAfter(cell, lat, lon, radiusKm, box, afterDistance, afterId, heap);
+                }
+            } else {
+                for (int r = minRow; r <= maxRow; r++) {
+                    for (int c = minCol; c <= maxCol; c++) {
+                        int index = cellByKey.get(key(r, c));
+                        if (index != LongIntHashMap.MISSING) {
+                            offerAfter(cells.get(index), lat, lon, radiusKm, box, afterDistance, afterId, heap);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return heap.drainAscending();
+    }
+
+    /**
+     * The k persons nearest to (lat, lon), nearest first.
+     * The scanned area starts at the bounding box of one cell and doubles its radius until the k-th best
+     * distance is no farther than the closest point outside the cells scanned so far.
+     */
+    public long[] findNearest(double lat, double lon, int k) {
+        if (k <= 0) {
+            return new long[0];
+        }
+        BoundedMaxHeap heap = new BoundedMaxHeap(k);
+        double radiusKm = GeoUtils.distanceKm(0, 0, cellSize, 0);
+
+        lock.readLock().lock();
+        try {
+            // scanned rectangle in cell coordinates, initially empty
+            int r0 = 0, r1 = -1, c0 = 0, c1 = -1;
+            while (true) {
+                var box = GeoUtils.calculateBoundingBox(lat, lon, radiusKm);
+                int minRow = Math.min(row(box.minLat()), r1 < r0 ? Integer.MAX_VALUE : r0);
+                int maxRow = Math.max(row(box.maxLat()), r1);
+                int minCol = Math.min(col(box.minLon()), c1 < c0 ? Integer.MAX_VALUE : c0);
+                int maxCol = Math.max(col(box.maxLon()), c1);
+                long span = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+
+                if (span > cells.size()) {
+                    // the ring would probe more keys than there are occupied cells: finish with one pass over them
+                    for (Cell cell : cells) {
+                        if (cell.row < r0 || cell.row > r1 || cell.col < c0 || cell.col > c1) {
+                            offerAll(cell, lat, lon, heap);
+                        }
+                    }
+                    break;
+                }
+
+                for (int r = minRow; r <= maxRow; r++) {
+                    for (int c = minCol; c <= maxCol; c++) {
+                        if (r >= r0 && r <= r1 && c >= c0 && c <= c1) {
+                            continue;
+                        }
+                        int index = cellByKey.get(key(r, c));
+                        if (index != LongIntHashMap.MISSING) {
+                            offerAll(cells.get(index), lat, lon, heap);
+                        }
+                    }
+                }
+                r0 = minRow;
+                r1 = maxRow;
+                c0 = minCol;
+                c1 = maxCol;
+
+                boolean everything = r0 == 0 && r1 == rows - 1 && c0 == 0 && c1 == cols - 1;
+                if (everything || heap.worstDistance() <= coveredRadiusKm(lat, lon, r0, r1, c0, c1)) {
+                    break;
+                }
+                radiusKm *= 2;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return heap.drainAscending().ids();
+    }
+
+    /**
+     * Distance from (lat, lon) to the closest point that lies outside the given block of cells.
+     */
+    private double coveredRadiusKm(double lat, double lon, int r0, int r1, int c0, int c1) {
+        double covered = Double.POSITIVE_INFINITY;
+        double south = r0 * cellSize - 90;
+        double north = (r1 + 1) * cellSize - 90;
+        if (r0 > 0) {
+            covered = Math.min(covered, GeoUtils.distanceKm(lat, lon, south, lon));
+        }
+        if (north < 90) {
+            covered = Math.min(covered, GeoUtils.distanceKm(lat, lon, north, lon));
+        }
+        if (c0 > 0 || c1 < cols - 1) {
+            double west = c0 * cellSize - 180;
+            double east = (c1 + 1) * cellSize - 180;
+            if (c0 > 0) {
+                covered = Math.min(covered, GeoUtils.distanceToMeridianKm(lat, lon - west));
+            }
+            if (east < 180) {
+                covered = Math.min(covered, GeoUtils.distanceToMeridianKm(lat, east - lon));
+            }
+            // the grid does not wrap, but the shortest path may still cross the antimeridian
+            covered = Math.min(covered, GeoUtils.distanceToMeridianKm(lat, 180 - lon));
+            covered = Math.min(covered, GeoUtils.distanceToMeridianKm(lat, lon + 180));
+        }
+        return covered;
+    }
+
+    private static void offerAll(Cell cell, double lat, double lon, BoundedMaxHeap heap) {
+        for (int i = 0; i < cell.size; i++) {
+            heap.offer(GeoUtils.distanceKm(lat, lon, cell.lats[i], cell.lons[i]), cell.ids[i]);
+        }
+    }
+
+    private static void offerAfter(Cell cell, double lat, double lon, double radiusKm, GeoUtils.BoundingBox box,
+                                   double afterDistance, long afterId, BoundedMaxHeap heap) {
+        for (int i = 0; i < cell.size; i++) {
+            double pLat = cell.lats[i];
+            double pLon = cell.lons[i];
+            if (pLat < box.minLat() || pLat > box.maxLat() || pLon < box.minLon() || pLon > box.maxLon()) {
+                continue;
+            }
+            double distance = GeoUtils.distanceKm(lat, lon, pLat, pLon);
+            long id = cell.ids[i];
+            if (distance <= radiusKm && (distance > afterDistance || (distance == afterDistance && id > afterId))) {
+                heap.offer(distance, id);
+            }
+        }
+    }
+
+    private static void collect(Cell cell, double lat, double lon, double radiusKm,
+                                GeoUtils.BoundingBox box, Candidates candidates) {
+        for (int i = 0; i < cell.size; i++) {
+            double pLat = cell.lats[i];
+            double pLon = cell.lons[i];
+            if (pLat < box.minLat() || pLat > box.maxLat() || pLon < box.minLon() || pLon > box.maxLon()) {
+                continue;
+            }
+            double distance = GeoUtils.distanceKm(lat, lon, pLat, pLon);
+            if (distance <= radiusKm) {
+                candidates.add(distance, cell.ids[i]);
+            }
+        }
+    }
+
+    private void insert(long id, double lat, double lon) {
+        int row = row(lat);
+        int col = col(lon);
+        long key = key(row, col);
+        int index = cellByKey.get(key);
+        if (index == LongIntHashMap.MISSING) {
+            index = cells.size();
+            cells.add(new Cell(row, col));
+            cellByKey.put(key, index);
+        }
+        cells.get(index).add(id, lat, lon);
+        cellById.put(id, index);
+    }
+
+    private void delete(long id) {
+        int index = cellById.remove(id);
+        if (index != LongIntHashMap.MISSING) {
+            cells.get(index).remove(id);
+        }
+    }
+
+    private int row(double lat) {
+        return clamp((int) Math.floor((lat + 90) / cellSize), rows);
+    }
+
+    private int col(double lon) {
+        return clamp((int) Math.floor((lon + 180) / cellSize), cols);
+    }
+
+    private long key(int row, int col) {
+        return (long) row * cols + col;
+    }
+
+    private static int clamp(int value, int bound) {
+        return Math.max(0, Math.min(bound - 1, value));
+    }
+
+    /**
+     * Ids with their distances in KM, nearest first.
+     */
+    public record Neighbors(long[] ids, double[] distances) {
+    }
+
+    private static final class Cell {
+        final int row;
+        final int col;
+        long[] ids = new long[4];
+        double[] lats = new double[4];
+        double[] lons = new double[4];
+        int size;
+
+        Cell(int row, int col) {
+            this.row = row;
+            this.col = col;
+        }
+
+        void add(long id, double lat, double lon) {
+            if (size == ids.length) {
+                int capacity = size << 1;
+                ids = Arrays.copyOf(ids, capacity);
+                lats = Arrays.copyOf(lats, capacity);
+                lons = Arrays.copyOf(lons, capacity);
+            }
+            ids[size] = id;
+            lats[size] = lat;
+            lons[size] = lon;
+            size++;
+        }
+
+        void remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    size--;
+                    ids[i] = ids[size];
+                    lats[i] = lats[size];
+                    lons[i] = lons[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable (distance, id) pairs sorted in place without boxing.
+     */
+    private static final class Candidates {
+        double[] distances = new double[64];
+        long[] ids = new long[64];
+        int size;
+
+        void add(double distance, long id) {
+            if (size == ids.length) {
+                distances = Arrays.copyOf(distances, size << 1);
+                ids = Arrays.copyOf(ids, size << 1);
+            }
+            distances[size] = distance;
+            ids[size] = id;
+            size++;
+        }
+
+        void sort() {
+            quickSort(0, size - 1);
+        }
+
+        private void quickSort(int lo, int hi) {
+            while (hi - lo > 16) {
+                int mid = (lo + hi) >>> 1;
+                double pivotDistance = distances[mid];
+                long pivotId = ids[mid];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (less(distances[i], ids[i], pivotDistance, pivotId)) i++;
+                    while (less(pivotDistance, pivotId, distances[j], ids[j])) j--;
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // recurse into the smaller half to bound stack depth
+                if (j - lo < hi - i) {
+                    quickSort(lo, j);
+                    lo = i;
+                } else {
+                    quickSort(i, hi);
+                    hi = j;
+                }
+            }
+            for (int i = lo + 1; i <= hi; i++) {
+                for (int j = i; j > lo && less(distances[j], ids[j], distances[j - 1], ids[j - 1]); j--) {
+                    swap(j, j - 1);
+                }
+            }
+        }
+
+        private static boolean less(double d1, long id1, double d2, long id2) {
+            return d1 < d2 || (d1 == d2 && id1 < id2);
+        }
+
+        private void swap(int a, int b) {
+            double d = distances[a];
+            distances[a] = distances[b];
+            distances[b] = d;
+            long id = ids[a];
+            ids[a] = ids[b];
+            ids[b] = id;
+        }
+    }
+}
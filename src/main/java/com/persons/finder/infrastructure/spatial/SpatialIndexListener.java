@@ -0,0 +1,67 @@
+package com.persons.finder.infrastructure.spatial;
+
+import com.persons.finder.domain.model.Location;
+import com.persons.finder.domain.model.Person;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Keeps {@link PersonSpatialIndex} in step with every JPA write of {@link Person}.
+ * Changes are applied immediately; if the surrounding transaction rolls back, the
+ * affected id is re-read from the database. Cached nearby tiles around the written
+ * coordinates are dropped on commit; the coordinates a person moved away from are
+ * not known here, so callers that move a person invalidate those themselves.
+ */
+public class SpatialIndexListener {
+
+    private final ObjectProvider<PersonSpatialIndex> spatialIndexProvider;
+    private final ObjectProvider<NearbyTileCache> nearbyTileCacheProvider;
+
+    // Hibernate creates listeners while the EntityManagerFactory is being built, before JdbcTemplate exists
+    public SpatialIndexListener(ObjectProvider<PersonSpatialIndex> spatialIndexProvider,
+                                ObjectProvider<NearbyTileCache> nearbyTileCacheProvider) {
+        this.spatialIndexProvider = spatialIndexProvider;
+        this.nearbyTileCacheProvider = nearbyTileCacheProvider;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Person person) {
+        PersonSpatialIndex spatialIndex = spatialIndexProvider.getObject();
+        Location location = person.getLocation();
+        if (location == null || location.getLatitude() == null || location.getLongitude() == null) {
+            spatialIndex.remove(person.getId());
+        } else {
+            spatialIndex.put(person.getId(), location.getLatitude(), location.getLongitude());
+        }
+        refreshOnRollback(spatialIndex, person.getId());
+        nearbyTileCacheProvider.getObject().invalidate(location);
+    }
+
+    @PostRemove
+    public void onRemove(Person person) {
+        PersonSpatialIndex spatialIndex = spatialIndexProvider.getObject();
+        spatialIndex.remove(person.getId());
+        refreshOnRollback(spatialIndex, person.getId());
+        nearbyTileCacheProvider.getObject().invalidate(person.getLocation());
+    }
+
+    private static void refreshOnRollback(PersonSpatialIndex spatialIndex, long id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    spatialIndex.refresh(id);
+                }
+            }
+        });
+    }
+}
@@ -1,5 +1,9 @@
 package com.persons.finder.infrastructure.util;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 /**
  * Utility for geospatial calculations.
  */
@@ -8,6 +12,9 @@ public class GeoUtils {
     // Mean radius of the Earth (KM)
     private static final double EARTH_RADIUS = 6371.01;
 
+    // bits per axis of a cell id; two axes fill 62 bits of a long
+    private static final int CELL_BITS = 31;
+
     /**
      * define boundaries
      */
@@ -16,6 +23,11 @@ public class GeoUtils {
             double minLon, double maxLon
     ) {}
 
+    /**
+     * Inclusive range of cell ids, see {@link #cellRanges}.
+     */
+    public record CellRange(long first, long last) {}
+
     /**
      * Calculate the latitude and longitude bounding box (Bounding Box) based on the center point and radius
      * This is crucial for querying 1 million data. It allows the database to use the index to filter out 99% of non-target data.
@@ -32,4 +44,102 @@ public class GeoUtils {
                 lon + lonChange
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Great-circle distance in KM between two points (haversine formula).
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    /**
+     * Shortest distance in KM from a point to the meridian lonDelta degrees east or west of it.
+     * Beyond 90 degrees the closest point of the meridian is the nearer pole.
+     */
+    public static double distanceToMeridianKm(double lat, double lonDelta) {
+        double delta = Math.abs(lonDelta);
+        if (delta >= 90) {
+            return EARTH_RADIUS * Math.toRadians(90 - Math.abs(lat));
+        }
+        return EARTH_RADIUS * Math.asin(Math.sin(Math.toRadians(delta)) * Math.cos(Math.toRadians(lat)));
+    }
+
+    /**
+     * Cell id of a point: latitude and longitude are each quantized to 31 bits and interleaved bit by bit
+     * (Z-order / Morton code). Points in the same cell at any coarser level share a prefix, so every cell
+     * is one contiguous range of ids.
+     */
+    public static long cellId(double lat, double lon) {
+        return interleave(quantize(lat, -90, 180), quantize(lon, -180, 360));
+    }
+
+    /**
+     * Cell id ranges that together cover the box. Uses the finest level at which at most maxCells cells
+     * cover it, and merges cells whose ranges are adjacent. The ranges are sorted and disjoint.
+     * An inverted box (min above max, as computed past a pole) covers the same span as its ordered one.
+     */
+    public static List<CellRange> cellRanges(BoundingBox box, int maxCells) {
+        long minRow = quantize(Math.min(box.minLat(), box.maxLat()), -90, 180);
+        long maxRow = quantize(Math.max(box.minLat(), box.maxLat()), -90, 180);
+        long minCol = quantize(Math.min(box.minLon(), box.maxLon()), -180, 360);
+        long maxCol = quantize(Math.max(box.minLon(), box.maxLon()), -180, 360);
+        int shift = 0;
+        while (shift < CELL_BITS
+                && ((maxRow >> shift) - (minRow >> shift) + 1) * ((maxCol >> shift) - (minCol >> shift) + 1) > maxCells) {
+            shift++;
+        }
+
+        long[] prefixes = new long[(int) (((maxRow >> shift) - (minRow >> shift) + 1) * ((maxCol >> shift) - (minCol >> shift) + 1))];
+        int count = 0;
+        for (long row = minRow >> shift; row <= maxRow >> shift; row++) {
+            for (long col = minCol >> shift; col <= maxCol >> shift; col++) {
+                prefixes[count++] = interleave(row, col);
+            }
+        }
+        Arrays.sort(prefixes);
+
+        List<CellRange> ranges = new ArrayList<>();
+        long first = prefixes[0];
+        long last = prefixes[0];
+        for (int i = 1; i < count; i++) {
+            if (prefixes[i] != last + 1) {
+                ranges.add(cellRange(first, last, shift));
+                first = prefixes[i];
+            }
+            last = prefixes[i];
+        }
+        ranges.add(cellRange(first, last, shift));
+        return ranges;
+    }
+
+    private static CellRange cellRange(long firstPrefix, long lastPrefix, int shift) {
+        return new CellRange(firstPrefix << (2 * shift), ((lastPrefix + 1) << (2 * shift)) - 1);
+    }
+
+    // clamped, so boxes that reach past a pole or the antimeridian cover the edge cells
+    private static long quantize(double value, double min, double span) {
+        long max = (1L << CELL_BITS) - 1;
+        long cell = (long) Math.floor((value - min) / span * (1L << CELL_BITS));
+        return Math.max(0, Math.min(max, cell));
+    }
+
+    // latitude in the odd bits, longitude in the even bits
+    private static long interleave(long row, long col) {
+        return spread(row) << 1 | spread(col);
+    }
+
+    private static long spread(long bits) {
+        bits &= 0xFFFFFFFFL;
+        bits = (bits | bits << 16) & 0x0000FFFF0000FFFFL;
+        bits = (bits | bits << 8) & 0x00FF00FF00FF00FFL;
+        bits = (bits | bits << 4) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | bits << 2) & 0x3333333333333333L;
+        bits = (bits | bits << 1) & 0x5555555555555555L;
+        return bits;
+    }
+}
@@ -0,0 +1,6 @@
+-- Schema of the geometry profile, applied after Hibernate has created the tables.
+-- geom is derived from latitude/longitude by the database, so JPA and JDBC writes keep it current
+-- without knowing about it; the spatial index is an R-tree over its envelopes.
+ALTER TABLE persons ADD COLUMN IF NOT EXISTS geom GEOMETRY(POINT)
+    GENERATED ALWAYS AS (CAST('POINT(' || longitude || ' ' || latitude || ')' AS GEOMETRY));
+CREATE SPATIAL INDEX IF NOT EXISTS idx_person_geom ON persons (geom);
@@ -0,0 +1,100 @@
+package com.persons.finder.controller;
+
+import com.persons.finder.dto.PersonRequest;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.dto.SecurityPatternRequest;
+import com.persons.finder.dto.SecurityPatternResponse;
+import com.persons.finder.infrastructure.security.SecurityPatternRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "app.ai.mock=true",
+        "app.seed-data=false"
+})
+public class AdminControllerIntegrationTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void securityPatterns_AddAndRemove_ApplyWithoutRestart() {
+        PersonRequest person = new PersonRequest("Eve", "Tester", "Chess, drop all tables", 0.0, 0.0);
+        long versionBefore = status().version();
+
+        ResponseEntity<SecurityPatternResponse> added = restTemplate.postForEntity("/api/v1/admin/security-patterns",
+                new SecurityPatternRequest("drop all tables", "INPUT_FILTER", "SQL smuggling"), SecurityPatternResponse.class);
+        assertThat(added.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(status().version()).isGreaterThan(versionBefore);
+
+        ResponseEntity<String> blocked = restTemplate.postForEntity("/api/v1/persons", person, String.class);
+        assertThat(blocked.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+
+        ResponseEntity<String> duplicate = restTemplate.postForEntity("/api/v1/admin/security-patterns",
+                new SecurityPatternRequest("drop all tables", "INPUT_FILTER", null), String.class);
+        assertThat(duplicate.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+
+        restTemplate.delete("/api/v1/admin/security-patterns/" + added.getBody().id());
+
+        ResponseEntity<PersonResponse> allowed = restTemplate.postForEntity("/api/v1/persons", person, PersonResponse.class);
+        assertThat(allowed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @Test
+    void securityPatterns_ConcurrentWrites_ShouldAllBumpTheVersion() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            ids.add(restTemplate.postForEntity("/api/v1/admin/security-patterns",
+                    new SecurityPatternRequest("concurrent pattern " + i, "INPUT_FILTER", null),
+                    SecurityPatternResponse.class).getBody().id());
+        }
+        long versionBefore = status().version();
+
+        // deletes, so the writes race only on the version row
+        ExecutorService admins = Executors.newFixedThreadPool(8);
+        List<Future<ResponseEntity<Void>>> deletes = new ArrayList<>();
+        try {
+            for (Long id : ids) {
+                deletes.add(admins.submit(() -> restTemplate.exchange("/api/v1/admin/security-patterns/" + id,
+                        HttpMethod.DELETE, null, Void.class)));
+            }
+            for (Future<ResponseEntity<Void>> delete : deletes) {
+                assertThat(delete.get().getStatusCode().is2xxSuccessful()).isTrue();
+            }
+        } finally {
+            admins.shutdownNow();
+        }
+
+        assertThat(status().version()).isEqualTo(versionBefore + 8);
+    }
+
+    @Test
+    void securityPatterns_WithUnknownType_ShouldReturnBadRequest() {
+        ResponseEntity<String> response = restTemplate.postForEntity("/api/v1/admin/security-patterns",
+                new SecurityPatternRequest("anything", "SOMETIMES", null), String.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    private SecurityPatternRegistry.SecurityPatternStatus status() {
+        return restTemplate.getForObject("/api/v1/admin/security-patterns/status",
+                SecurityPatternRegistry.SecurityPatternStatus.class);
+    }
+}
@@ -2,22 +2,37 @@ package com.persons.finder.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persons.finder.application.BioEnrichmentService;
+import com.persons.finder.application.PersonStreamService;
+import com.persons.finder.domain.model.BioStatus;
 import com.persons.finder.domain.model.Location;
 import com.persons.finder.domain.model.Person;
 import com.persons.finder.dto.LocationRequest;
+import com.persons.finder.dto.PersonFields;
 import com.persons.finder.dto.PersonRequest;
 import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.domain.repository.PersonReadRepository;
 import com.persons.finder.domain.repository.PersonRepository;
+import com.persons.finder.infrastructure.spatial.PersonSpatialIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -36,6 +51,12 @@ public class PersonControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private BioEnrichmentService bioEnrichmentService;
+
+    @Autowired
+    private PersonReadRepository personReadRepository;
+
     @BeforeEach
     void cleanUp() {
         personRepository.deleteAll();
@@ -70,6 +91,66 @@ public class PersonControllerIntegrationTest {
         assertThat(body.location().getLongitude()).isEqualTo(-74.0060);
     }
 
+    @Test
+    void createPersonAsync_ShouldAcceptThenCompleteBio() {
+        PersonRequest request = new PersonRequest(
+                "Async Doe",
+                "Software Engineer",
+                "Hiking, Photography",
+                40.7128,
+                -74.0060
+        );
+
+        ResponseEntity<PersonResponse> accepted = restTemplate.postForEntity(
+                "/api/v1/persons?async=true",
+                request,
+                PersonResponse.class
+        );
+
+        assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(accepted.getHeaders().getLocation()).isNotNull();
+        Long id = accepted.getBody().id();
+        assertThat(id).isNotNull();
+
+        ResponseEntity<PersonResponse> completed = restTemplate.getForEntity(
+                "/api/v1/persons/{id}/bio?timeoutMs=10000",
+                PersonResponse.class,
+                id
+        );
+
+        assertThat(completed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(completed.getBody().bioStatus()).isEqualTo(BioStatus.READY);
+        assertThat(completed.getBody().bio()).isNotEmpty();
+
+        PersonResponse polled = restTemplate.getForObject("/api/v1/persons/{id}", PersonResponse.class, id);
+        assertThat(polled.bioStatus()).isEqualTo(BioStatus.READY);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void awaitBio_WhenItTimesOut_ShouldReturnPendingAndForgetTheWaiter() throws Exception {
+        Person person = new Person();
+        person.setName("Stuck Doe");
+        person.setBioStatus(BioStatus.PENDING);
+        person.setLocation(new Location(40.7128, -74.0060));
+        Long id = personRepository.save(person).getId();
+
+        ResponseEntity<PersonResponse> response = restTemplate.getForEntity(
+                "/api/v1/persons/{id}/bio?timeoutMs=50",
+                PersonResponse.class,
+                id
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().bioStatus()).isEqualTo(BioStatus.PENDING);
+        // the completion callback runs just after the response has been written
+        Map<Long, ?> waiters = (Map<Long, ?>) ReflectionTestUtils.getField(bioEnrichmentService, "waiters");
+        for (int i = 0; i < 100 && waiters.containsKey(id); i++) {
+            Thread.sleep(20);
+        }
+        assertThat(waiters).doesNotContainKey(id);
+    }
+
     @Test
     void createPerson_WithInvalidInput_ShouldReturnBadRequest() {
         // name is ""
@@ -90,6 +171,20 @@ public class PersonControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
     }
 
+    @Test
+    void locationQueries_WithOutOfRangeCenter_ShouldReturnBadRequest() {
+        HttpHeaders ndjson = new HttpHeaders();
+        ndjson.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        for (String query : List.of("/nearby?lat=91&lon=0", "/nearby/scroll?lat=-120&lon=0", "/nearest?lat=0&lon=181",
+                "/nearby?lat=NaN&lon=0", "/export?lat=95&lon=0&radius=5", "/nearby/stream?lat=100&lon=0")) {
+            ResponseEntity<String> response = restTemplate.exchange("/api/v1/persons" + query,
+                    HttpMethod.GET, new HttpEntity<>(ndjson), String.class);
+
+            assertThat(response.getStatusCode()).as(query).isEqualTo(HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @Test
     void updateLocation_ShouldUpdateAndReturnUpdatedPerson() {
         // create
@@ -147,6 +242,144 @@ public class PersonControllerIntegrationTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
     }
 
+    @Test
+    void updateLocationBuffered_WithAck_ShouldWriteBeforeResponding() {
+        Person person = new Person();
+        person.setName("Moving Person");
+        person.setLocation(new Location(10.0, 20.0));
+        Long id = personRepository.save(person).getId();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<Void> accepted = restTemplate.exchange("/api/v1/persons/{id}/location?buffered=true",
+                HttpMethod.PUT, new HttpEntity<>(new LocationRequest(11.0, 21.0), headers), Void.class, id);
+        ResponseEntity<Void> acked = restTemplate.exchange("/api/v1/persons/{id}/location?buffered=true&ack=true",
+                HttpMethod.PUT, new HttpEntity<>(new LocationRequest(12.0, 22.0), headers), Void.class, id);
+        ResponseEntity<String> missing = restTemplate.exchange("/api/v1/persons/99999/location?buffered=true&ack=true",
+                HttpMethod.PUT, new HttpEntity<>(new LocationRequest(12.0, 22.0), headers), String.class);
+
+        assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(acked.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+        assertThat(missing.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        Person updated = personRepository.findById(id).orElseThrow();
+        assertThat(updated.getLocation().getLatitude()).isEqualTo(12.0);
+        assertThat(updated.getLocation().getLongitude()).isEqualTo(22.0);
+    }
+
+    @Test
+    void updateLocations_WithNdjsonStream_ShouldApplyValidRecords() {
+        Person first = new Person();
+        first.setName("Truck 1");
+        first.setLocation(new Location(10.0, 20.0));
+        Long firstId = personRepository.save(first).getId();
+        Person second = new Person();
+        second.setName("Truck 2");
+        second.setLocation(new Location(10.0, 20.0));
+        Long secondId = personRepository.save(second).getId();
+
+        String body = "{\"id\": " + firstId + ", \"latitude\": 11.0, \"longitude\": 21.0}\n"
+                + "{\"id\": " + secondId + ", \"latitude\": 12.0, \"longitude\": 22.0}\n"
+                + "{\"id\": " + firstId + ", \"latitude\": 13.0, \"longitude\": 23.0}\n"
+                + "{\"id\": " + secondId + ", \"latitude\": 91.0, \"longitude\": 22.0}\n"
+                + "{\"id\": 99999, \"latitude\": 1.0, \"longitude\": 1.0}\n";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity(
+                "/api/v1/persons/locations:batch", new HttpEntity<>(body, headers), JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("received").asLong()).isEqualTo(5);
+        assertThat(response.getBody().get("updated").asLong()).isEqualTo(3);
+        assertThat(response.getBody().get("notFound").asLong()).isEqualTo(1);
+        assertThat(response.getBody().get("rejected").asLong()).isEqualTo(1);
+        assertThat(response.getBody().get("errors").get(0).asText()).contains("Latitude must be between -90 and 90");
+        assertThat(personRepository.findById(firstId).orElseThrow().getLocation()).isEqualTo(new Location(13.0, 23.0));
+        assertThat(personRepository.findById(secondId).orElseThrow().getLocation()).isEqualTo(new Location(12.0, 22.0));
+    }
+
+    @Test
+    void updateLocations_WithNestedValues_ShouldRejectTheRecordAndKeepReading() {
+        Person truck = new Person();
+        truck.setName("Truck");
+        truck.setLocation(new Location(10.0, 20.0));
+        Long id = personRepository.save(truck).getId();
+
+        String body = "{\"id\": {\"id\": " + id + "}, \"latitude\": [1, {\"longitude\": 2}], \"longitude\": 21.0}\n"
+                + "{\"id\": " + id + ", \"latitude\": 11.0, \"longitude\": 21.0}\n";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<JsonNode> response = restTemplate.postForEntity(
+                "/api/v1/persons/locations:batch", new HttpEntity<>(body, headers), JsonNode.class);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().get("received").asLong()).isEqualTo(2);
+        assertThat(response.getBody().get("updated").asLong()).isEqualTo(1);
+        assertThat(response.getBody().get("rejected").asLong()).isEqualTo(1);
+        assertThat(response.getBody().get("errors").get(0).asText()).contains("id is required");
+        assertThat(personRepository.findById(id).orElseThrow().getLocation()).isEqualTo(new Location(11.0, 21.0));
+    }
+
+    @Test
+    void importPersons_WithCsv_ShouldInsertValidRowsAndGenerateBios() throws Exception {
+        String csv = "name,jobTitle,hobbies,latitude,longitude\n"
+                + "Ana Silva,Pilot,\"Sailing, Chess\",-41.2865,174.7762\n"
+                + ",Chef,Cooking,-41.0,174.0\n"
+                + "Kai Chen,Nurse,Running,-36.8485,174.7633\n";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType("text/csv"));
+
+        ResponseEntity<JsonNode> accepted = restTemplate.postForEntity(
+                "/api/v1/persons/imports", new HttpEntity<>(csv, headers), JsonNode.class);
+        assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+        JsonNode job = accepted.getBody();
+        for (int i = 0; i < 100 && !job.get("state").asText().matches("COMPLETED|FAILED"); i++) {
+            Thread.sleep(100);
+            job = restTemplate.getForObject(accepted.getHeaders().getLocation(), JsonNode.class);
+        }
+
+        assertThat(job.get("state").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("received").asLong()).isEqualTo(3);
+        assertThat(job.get("inserted").asLong()).isEqualTo(2);
+        assertThat(job.get("rejected").asLong()).isEqualTo(1);
+        assertThat(job.get("biosReady").asLong()).isEqualTo(2);
+        assertThat(job.get("errors").get(0).asText()).contains("Name is required");
+        assertThat(personRepository.findAll())
+                .extracting(Person::getHobbies, Person::getBioStatus)
+                .containsExactlyInAnyOrder(
+                        tuple("Sailing, Chess", BioStatus.READY),
+                        tuple("Running", BioStatus.READY));
+    }
+
+    @Test
+    void importPersons_WithNullNdjsonLine_ShouldRejectOnlyThatRecord() throws Exception {
+        String ndjson = "{\"name\": \"Ana Silva\", \"jobTitle\": \"Pilot\", \"hobbies\": \"Sailing\", "
+                + "\"latitude\": -41.2865, \"longitude\": 174.7762}\n"
+                + "null\n"
+                + "{\"name\": \"Kai Chen\", \"jobTitle\": \"Nurse\", \"hobbies\": \"Running\", "
+                + "\"latitude\": -36.8485, \"longitude\": 174.7633}\n";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+
+        ResponseEntity<JsonNode> accepted = restTemplate.postForEntity(
+                "/api/v1/persons/imports", new HttpEntity<>(ndjson, headers), JsonNode.class);
+        assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+
+        JsonNode job = accepted.getBody();
+        for (int i = 0; i < 100 && !job.get("state").asText().matches("COMPLETED|FAILED"); i++) {
+            Thread.sleep(100);
+            job = restTemplate.getForObject(accepted.getHeaders().getLocation(), JsonNode.class);
+        }
+
+        assertThat(job.get("state").asText()).isEqualTo("COMPLETED");
+        assertThat(job.get("received").asLong()).isEqualTo(3);
+        assertThat(job.get("inserted").asLong()).isEqualTo(2);
+        assertThat(job.get("rejected").asLong()).isEqualTo(1);
+        assertThat(job.get("errors").get(0).asText()).startsWith("record 2: ");
+    }
+
     @Test
     void findNearby_ShouldReturnPeopleWithinRadiusSortedByDistance() {
         Person personA = new Person();
@@ -187,6 +420,194 @@ public class PersonControllerIntegrationTest {
         assertThat(content.get(1).get("name").asText()).isEqualTo("Medium Person");
     }
 
+    @Test
+    void findNearby_WithFields_ShouldReturnOnlySelectedProperties() {
+        Person person = new Person();
+        person.setName("Nearby Person");
+        person.setLocation(new Location(40.7130, -74.0065));
+        person.setBio("Bio A");
+        personRepository.save(person);
+
+        ResponseEntity<JsonNode> response = restTemplate.getForEntity(
+                "/api/v1/persons/nearby?lat=40.7128&lon=-74.0060&radius=5&fields=location",
+                JsonNode.class
+        );
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        JsonNode first = response.getBody().get("content").get(0);
+        assertThat(first.get("id").asLong()).isEqualTo(person.getId());
+        assertThat(first.get("location").get("latitude").asDouble()).isEqualTo(40.7130);
+        assertThat(first.get("name").isNull()).isTrue();
+        assertThat(first.get("bio").isNull()).isTrue();
+
+        ResponseEntity<String> invalid = restTemplate.getForEntity(
+                "/api/v1/persons/nearby?lat=40.7128&lon=-74.0060&radius=5&fields=id,password",
+                String.class
+        );
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void findNearby_ShouldServeRepeatsFromCacheUntilATileIsWritten() {
+        Person resident = new Person();
+        resident.setName("Resident");
+        resident.setLocation(new Location(-41.2865, 174.7762));
+        personRepository.save(resident);
+        String nearby = "/api/v1/persons/nearby?lat=-41.2865&lon=174.7762&radius=1&fields=name";
+        // same tile and radius bucket as the query above
+        String sameTile = "/api/v1/persons/nearby?lat=-41.28648&lon=174.77618&radius=0.95&fields=name";
+
+        assertThat(names(nearby)).containsExactly("Resident");
+        long hits = nearbyCacheStats().get("hits").asLong();
+        assertThat(names(sameTile)).containsExactly("Resident");
+        assertThat(nearbyCacheStats().get("hits").asLong()).isEqualTo(hits + 1);
+
+        // a write elsewhere leaves the tile cached
+        Person stranger = new Person();
+        stranger.setName("Stranger");
+        stranger.setLocation(new Location(10.0, 10.0));
+        personRepository.save(stranger);
+        assertThat(names(nearby)).containsExactly("Resident");
+        assertThat(nearbyCacheStats().get("hits").asLong()).isEqualTo(hits + 2);
+
+        // moving in and moving out both drop it
+        restTemplate.put("/api/v1/persons/{id}/location", new LocationRequest(-41.2866, 174.7763), stranger.getId());
+        assertThat(names(nearby)).containsExactly("Resident", "Stranger");
+        restTemplate.put("/api/v1/persons/{id}/location", new LocationRequest(10.0, 10.0), stranger.getId());
+        assertThat(names(nearby)).containsExactly("Resident");
+        assertThat(nearbyCacheStats().get("invalidations").asLong()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void findNearby_FromACachedTile_ShouldAnswerTheExactQuery() {
+        Person center = new Person();
+        center.setName("Center");
+        center.setLocation(new Location(-41.2865, 174.7762));
+        personRepository.save(center);
+        Person north = new Person();
+        north.setName("North");
+        north.setLocation(new Location(-41.28569, 174.7762)); // 90 m north of the first query, 57 m of the second
+        personRepository.save(north);
+        // both centers snap to the same tile and both radii to the 0.1 km bucket
+        String atCenter = "/api/v1/persons/nearby?lat=-41.2865&lon=174.7762&radius=0.06&fields=name";
+        String northOfCenter = "/api/v1/persons/nearby?lat=-41.2862&lon=174.7762&radius=0.06&fields=name";
+
+        assertThat(names(atCenter)).containsExactly("Center");
+        long hits = nearbyCacheStats().get("hits").asLong();
+        assertThat(names(northOfCenter)).containsExactly("Center", "North");
+        assertThat(nearbyCacheStats().get("hits").asLong()).isEqualTo(hits + 1);
+    }
+
+    private List<String> names(String url) {
+        JsonNode content = restTemplate.getForObject(url, JsonNode.class).get("content");
+        List<String> names = new ArrayList<>();
+        content.forEach(person -> names.add(person.get("name").asText()));
+        return names;
+    }
+
+    private JsonNode nearbyCacheStats() {
+        return restTemplate.getForObject("/api/v1/admin/nearby-cache", JsonNode.class);
+    }
+
+    @Test
+    void streamNearby_ShouldStreamNearestFirstAsNdjsonAndEvents() throws Exception {
+        for (int i = 2; i >= 0; i--) {
+            Person person = new Person();
+            person.setName("Streamed " + i);
+            person.setLocation(new Location(40.7128 + i * 0.01, -74.0060));
+            personRepository.save(person);
+        }
+
+        HttpHeaders ndjson = new HttpHeaders();
+        ndjson.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+        ResponseEntity<String> lines = restTemplate.exchange(
+                "/api/v1/persons/nearby/stream?lat=40.7128&lon=-74.0060&radius=5&limit=2&fields=name",
+                HttpMethod.GET, new HttpEntity<>(ndjson), String.class);
+        HttpHeaders sse = new HttpHeaders();
+        sse.setAccept(List.of(MediaType.TEXT_EVENT_STREAM));
+        ResponseEntity<String> events = restTemplate.exchange(
+                "/api/v1/persons/nearby/stream?lat=40.7128&lon=-74.0060&radius=5",
+                HttpMethod.GET, new HttpEntity<>(sse), String.class);
+        ResponseEntity<String> invalid = restTemplate.exchange(
+                "/api/v1/persons/nearby/stream?lat=40.7128&lon=-74.0060&radius=5&limit=0",
+                HttpMethod.GET, new HttpEntity<>(ndjson), String.class);
+
+        assertThat(lines.getStatusCode()).isEqualTo(HttpStatus.OK);
+        String[] rows = lines.getBody().split("\n");
+        assertThat(rows).hasSize(2);
+        assertThat(objectMapper.readTree(rows[0]).get("name").asText()).isEqualTo("Streamed 0");
+        assertThat(objectMapper.readTree(rows[1]).get("name").asText()).isEqualTo("Streamed 1");
+        assertThat(events.getBody().split("\n")).filteredOn(line -> line.startsWith("data:")).hasSize(3);
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void streamNearby_WithoutSpatialIndex_ShouldPageByKeyset() {
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Person person = new Person();
+            person.setName("Paged " + i);
+            // the first three share a location, so the tie is broken by id across the page boundary
+            person.setLocation(new Location(40.7128 + Math.max(0, i - 2) * 0.01, -74.0060));
+            expected.add(personRepository.save(person).getName());
+        }
+        // a spatial index that is never ready sends every chunk through findNearbyAfter
+        PersonStreamService pagedStream = new PersonStreamService(personReadRepository, mock(PersonSpatialIndex.class), 2);
+
+        List<String> names = pagedStream.streamNearby(40.7128, -74.0060, 10, 4, PersonFields.parse("name"))
+                .map(PersonResponse::name)
+                .collectList()
+                .block();
+
+        assertThat(names).containsExactlyElementsOf(expected.subList(0, 4));
+    }
+
+    @Test
+    void exportPersons_ShouldStreamOneJsonLinePerPerson() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            Person person = new Person();
+            person.setName("Exported " + i);
+            person.setLocation(new Location(40.7130 + i, -74.0065));
+            person.setBio("Bio " + i);
+            personRepository.save(person);
+        }
+
+        ResponseEntity<String> all = restTemplate.getForEntity("/api/v1/persons/export", String.class);
+        ResponseEntity<String> region = restTemplate.getForEntity(
+                "/api/v1/persons/export?lat=40.7128&lon=-74.0060&radius=5&fields=name", String.class);
+        ResponseEntity<String> invalid = restTemplate.getForEntity("/api/v1/persons/export?lat=40.7128", String.class);
+
+        assertThat(all.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(all.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(all.getBody().split("\n")).hasSize(3);
+        String[] lines = region.getBody().split("\n");
+        assertThat(lines).hasSize(1);
+        JsonNode line = objectMapper.readTree(lines[0]);
+        assertThat(line.get("name").asText()).isEqualTo("Exported 0");
+        assertThat(line.get("bio").isNull()).isTrue();
+        assertThat(invalid.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void exportQueries_ShouldBeReadLazilyByH2() throws Exception {
+        Person person = new Person();
+        person.setName("Exported");
+        person.setLocation(new Location(40.7130, -74.0065));
+        personRepository.save(person);
+        // in-memory H2 ignores the fetch size and buffers the whole result unless the session executes lazily
+        Class<?> lazyResult = Class.forName("org.h2.result.LazyResult");
+        Class<?> h2ResultSet = Class.forName("org.h2.jdbc.JdbcResultSet");
+        NamedParameterJdbcTemplate streaming =
+                (NamedParameterJdbcTemplate) ReflectionTestUtils.getField(personReadRepository, "streamingTemplate");
+        List<Object> results = new ArrayList<>();
+
+        streaming.query("SELECT id, name FROM persons", Map.of(),
+                (RowCallbackHandler) rs -> results.add(ReflectionTestUtils.getField(rs.unwrap(h2ResultSet), "result")));
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0)).isInstanceOf(lazyResult);
+    }
+
     @Test
     void findNearby_WithNoResults_ShouldReturnEmptySlice() {
         ResponseEntity<JsonNode> response = restTemplate.getForEntity(
@@ -203,4 +624,17 @@ public class PersonControllerIntegrationTest {
         }
         assertThat(content).isEmpty();
     }
-}
\ No newline at end of file
+
+    @Test
+    void metrics_ShouldRecordNearbySearchTimers() {
+        restTemplate.getForEntity("/api/v1/persons/nearby?lat=40.7128&lon=-74.0060&radius=5", String.class);
+
+        ResponseEntity<JsonNode> nearby = restTemplate.getForEntity("/actuator/metrics/persons.nearby", JsonNode.class);
+        ResponseEntity<JsonNode> phase = restTemplate.getForEntity(
+                "/actuator/metrics/persons.nearby.phase?tag=phase:db", JsonNode.class);
+
+        assertThat(nearby.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(nearby.getBody().get("measurements").get(0).get("value").asDouble()).isGreaterThanOrEqualTo(1);
+        assertThat(phase.getStatusCode()).isEqualTo(HttpStatus.OK);
+    }
+}
@@ -0,0 +1,165 @@
+package com.persons.finder.domain.repository;
+
+import com.persons.finder.application.PersonService;
+import com.persons.finder.domain.model.Location;
+import com.persons.finder.domain.model.Person;
+import com.persons.finder.dto.PersonFields;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.infrastructure.location.LocationUpdate;
+import com.persons.finder.infrastructure.location.LocationWriter;
+import com.persons.finder.infrastructure.spatial.CellIdBackfill;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import com.persons.finder.infrastructure.util.GeoUtils.CellRange;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nearby queries on the cell backend: cell_id ranges covering the bounding box are scanned on idx_cell
+ * instead of a latitude band of idx_location.
+ */
+@SpringBootTest(properties = {
+        "app.seed-data=false",
+        "app.location-backend=cell",
+        "app.spatial-index.enabled=false",
+        "app.nearby-cache.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:cell;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LAZY_QUERY_EXECUTION=TRUE"
+})
+@ActiveProfiles("test")
+class PersonReadRepositoryCellTest {
+
+    @Autowired
+    private PersonReadRepository personReadRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private LocationWriter locationWriter;
+
+    @Autowired
+    private CellIdBackfill cellIdBackfill;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        personRepository.deleteAll();
+        cellIdBackfill.run();
+    }
+
+    @Test
+    void cellRanges_ShouldCoverEveryPointOfTheBox() {
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < 200; i++) {
+            double lat = -89 + 178 * random.nextDouble();
+            double lon = -180 + 360 * random.nextDouble();
+            var box = GeoUtils.calculateBoundingBox(lat, lon, 0.1 + 200 * random.nextDouble());
+            List<CellRange> ranges = GeoUtils.cellRanges(box, 16);
+
+            assertTrue(ranges.size() <= 16, ranges::toString);
+            for (int j = 1; j < ranges.size(); j++) {
+                assertTrue(ranges.get(j).first() > ranges.get(j - 1).last() + 1, ranges::toString);
+            }
+            for (int j = 0; j < 50; j++) {
+                long cellId = GeoUtils.cellId(
+                        Math.max(-90, Math.min(90, box.minLat() + (box.maxLat() - box.minLat()) * random.nextDouble())),
+                        Math.max(-180, Math.min(180, box.minLon() + (box.maxLon() - box.minLon()) * random.nextDouble())));
+                assertTrue(ranges.stream().anyMatch(range -> cellId >= range.first() && cellId <= range.last()),
+                        () -> box + " " + ranges);
+            }
+        }
+    }
+
+    @Test
+    void cellRanges_ForAnInvertedBox_ShouldCoverItsOrderedSpan() {
+        // past a pole the longitude span comes out negative
+        var box = GeoUtils.calculateBoundingBox(100, 10, 50);
+        assertTrue(box.minLon() > box.maxLon(), box::toString);
+
+        var ordered = new GeoUtils.BoundingBox(box.minLat(), box.maxLat(), box.maxLon(), box.minLon());
+        assertEquals(GeoUtils.cellRanges(ordered, 16), GeoUtils.cellRanges(box, 16));
+    }
+
+    @Test
+    void findNearby_ShouldScanCellRangesOnTheCellIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id FROM (VALUES (CAST(? AS BIGINT), CAST(? AS BIGINT)), " +
+                        "(CAST(? AS BIGINT), CAST(? AS BIGINT))) cells (first_cell, last_cell) " +
+                        "JOIN persons WHERE cell_id BETWEEN first_cell AND last_cell " +
+                        "AND latitude * latitude + longitude * longitude <= ? ORDER BY latitude LIMIT 10", String.class,
+                1L, 2L, 5L, 9L, 100);
+
+        assertTrue(plan.contains("IDX_CELL: CELL_ID >= FIRST_CELL"), plan);
+    }
+
+    @Test
+    void findNearby_ShouldReturnPersonsWithinRadiusNearestFirst() {
+        Person near = save("Near", -41.2866, 174.7763);
+        Person farther = save("Farther", -41.2900, 174.7800);
+        save("Outside", -41.5000, 174.7762);
+        save("Other side of the world", 41.2865, -5.2238);
+
+        var box = GeoUtils.calculateBoundingBox(-41.2865, 174.7762, 5);
+        List<PersonResponse> results = personReadRepository.findNearby(-41.2865, 174.7762, 5, box, 0, 10, PersonFields.ALL);
+
+        assertEquals(List.of(near.getId(), farther.getId()), results.stream().map(PersonResponse::id).toList());
+        assertEquals(List.of(near.getId(), farther.getId()), personService
+                .findNearby(-41.2865, 174.7762, 5, PageRequest.of(0, 10)).map(PersonResponse::id).getContent());
+    }
+
+    @Test
+    void writes_ShouldKeepTheCellIdInStep() {
+        Person mover = save("Mover", 10.0, 10.0);
+        assertEquals(GeoUtils.cellId(10.0, 10.0), cellIdOf(mover.getId()));
+
+        mover.setLocation(new Location(-41.2866, 174.7763));
+        personRepository.save(mover);
+        assertEquals(GeoUtils.cellId(-41.2866, 174.7763), cellIdOf(mover.getId()));
+
+        locationWriter.write(List.of(new LocationUpdate(mover.getId(), 51.5072, -0.1276)));
+        assertEquals(GeoUtils.cellId(51.5072, -0.1276), cellIdOf(mover.getId()));
+
+        var box = GeoUtils.calculateBoundingBox(51.5072, -0.1276, 1);
+        assertEquals(List.of(mover.getId()), personReadRepository.findNearby(51.5072, -0.1276, 1, box, 0, 10, PersonFields.ALL)
+                .stream().map(PersonResponse::id).toList());
+    }
+
+    @Test
+    void backfill_ShouldFillRowsWrittenWithoutACellId() {
+        jdbcTemplate.update("INSERT INTO persons (name, latitude, longitude, version) VALUES ('Legacy', -41.2866, 174.7763, 0)");
+        Long id = jdbcTemplate.queryForObject("SELECT id FROM persons WHERE name = 'Legacy'", Long.class);
+        assertNull(cellIdOf(id));
+
+        CellIdBackfill.CellBackfillStatus status = cellIdBackfill.run();
+
+        assertTrue(status.complete());
+        assertEquals(GeoUtils.cellId(-41.2866, 174.7763), cellIdOf(id));
+        var box = GeoUtils.calculateBoundingBox(-41.2865, 174.7762, 1);
+        assertEquals(List.of(id), personReadRepository.findNearby(-41.2865, 174.7762, 1, box, 0, 10, PersonFields.ALL)
+                .stream().map(PersonResponse::id).toList());
+    }
+
+    private Long cellIdOf(long id) {
+        return jdbcTemplate.queryForObject("SELECT cell_id FROM persons WHERE id = ?", Long.class, id);
+    }
+
+    private Person save(String name, double lat, double lon) {
+        Person person = new Person();
+        person.setName(name);
+        person.setLocation(new Location(lat, lon));
+        return personRepository.save(person);
+    }
+}
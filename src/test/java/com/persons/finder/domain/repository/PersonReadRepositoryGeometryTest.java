@@ -0,0 +1,94 @@
+package com.persons.finder.domain.repository;
+
+import com.persons.finder.application.PersonService;
+import com.persons.finder.domain.model.Location;
+import com.persons.finder.domain.model.Person;
+import com.persons.finder.dto.PersonFields;
+import com.persons.finder.dto.PersonResponse;
+import com.persons.finder.infrastructure.util.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Nearby queries on the geometry profile: the generated POINT column and its spatial index
+ * replace the latitude/longitude B-tree as the bounding-box filter.
+ */
+@SpringBootTest(properties = {
+        "app.seed-data=false",
+        "spring.datasource.url=jdbc:h2:mem:geometry;MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;LAZY_QUERY_EXECUTION=TRUE"
+})
+@ActiveProfiles({"test", "geometry"})
+class PersonReadRepositoryGeometryTest {
+
+    @Autowired
+    private PersonReadRepository personReadRepository;
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void findNearby_ShouldFilterWithTheSpatialIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT id FROM persons WHERE geom && CAST(? AS GEOMETRY)", String.class,
+                "POLYGON ((174 -42, 175 -42, 175 -41, 174 -41, 174 -42))");
+
+        assertTrue(plan.contains("IDX_PERSON_GEOM"), plan);
+    }
+
+    @Test
+    void findNearby_ShouldReturnPersonsWithinRadiusNearestFirst() {
+        Person near = save("Near", -41.2866, 174.7763);
+        Person farther = save("Farther", -41.2900, 174.7800);
+        save("Outside", -41.5000, 174.7762);
+        save("Other side of the world", 41.2865, -5.2238);
+
+        var box = GeoUtils.calculateBoundingBox(-41.2865, 174.7762, 5);
+        List<PersonResponse> results = personReadRepository.findNearby(-41.2865, 174.7762, 5, box, 0, 10, PersonFields.ALL);
+
+        assertEquals(List.of(near.getId(), farther.getId()), results.stream().map(PersonResponse::id).toList());
+        assertEquals(List.of(near.getId(), farther.getId()), personService
+                .findNearby(-41.2865, 174.7762, 5, PageRequest.of(0, 10)).map(PersonResponse::id).getContent());
+    }
+
+    @Test
+    void findNearby_AfterMove_ShouldUseTheRecomputedPoint() {
+        Person mover = save("Mover", 10.0, 10.0);
+
+        mover.setLocation(new Location(-41.2866, 174.7763));
+        personRepository.save(mover);
+
+        var box = GeoUtils.calculateBoundingBox(-41.2865, 174.7762, 1);
+        List<PersonResponse> results = personReadRepository.findNearby(-41.2865, 174.7762, 1, box, 0, 10, PersonFields.ALL);
+        assertEquals(List.of(mover.getId()), results.stream().map(PersonResponse::id).toList());
+        // without the in-memory grid the keyset scroll goes through findNearbyAfter, also narrowed by geom
+        assertEquals(List.of(mover.getId()), personService.scrollNearby(-41.2865, 174.7762, 1, 10, null)
+                .content().stream().map(PersonResponse::id).toList());
+    }
+
+    private Person save(String name, double lat, double lon) {
+        Person person = new Person();
+        person.setName(name);
+        person.setLocation(new Location(lat, lon));
+        return personRepository.save(person);
+    }
+}
@@ -0,0 +1,170 @@
+package com.persons.finder.infrastructure.ai;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiRequestBatcherTest {
+
+    private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+    private final AiClient echoClient = new AiClient() {
+        @Override
+        public String generate(String prompt) {
+            batchSizes.add(1);
+            return "bio:" + prompt;
+        }
+
+        @Override
+        public List<String> generateBatch(List<String> prompts) {
+            batchSizes.add(prompts.size());
+            return prompts.stream().map(p -> "bio:" + p).collect(Collectors.toList());
+        }
+    };
+
+    private AiRequestBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+    }
+
+    @Test
+    void generate_ConcurrentCallersShareBatchesAndGetTheirOwnAnswer() throws Exception {
+        batcher = new AiRequestBatcher(echoClient, true, 8, 200, 2, 5000, new SimpleMeterRegistry());
+        batcher.start();
+
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<String>> futures = new CopyOnWriteArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String prompt = "p" + i;
+                futures.add(callers.submit(() -> batcher.generate(prompt)));
+            }
+            for (int i = 0; i < 16; i++) {
+                assertEquals("bio:p" + i, futures.get(i).get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(16, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().anyMatch(size -> size > 1), "expected at least one multi-prompt batch");
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 8));
+    }
+
+    @Test
+    void generate_PromptsArrivingWhileSendersAreBusyJoinTheNextBatch() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new AiRequestBatcher(new AiClient() {
+            @Override
+            public String generate(String prompt) {
+                batchSizes.add(1);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "bio:" + prompt;
+            }
+
+            @Override
+            public List<String> generateBatch(List<String> prompts) {
+                return echoClient.generateBatch(prompts);
+            }
+        }, true, 8, 1, 1, 5000, new SimpleMeterRegistry());
+        batcher.start();
+
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            Future<String> first = callers.submit(() -> batcher.generate("p0"));
+            while (batchSizes.isEmpty()) {
+                Thread.sleep(5);
+            }
+            List<Future<String>> queued = new CopyOnWriteArrayList<>();
+            for (int i = 1; i < 6; i++) {
+                String prompt = "p" + i;
+                queued.add(callers.submit(() -> batcher.generate(prompt)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            assertEquals("bio:p0", first.get());
+            for (int i = 1; i < 6; i++) {
+                assertEquals("bio:p" + i, queued.get(i - 1).get());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(List.of(1, 5), batchSizes);
+    }
+
+    @Test
+    void generate_PropagatesUpstreamFailure() {
+        batcher = new AiRequestBatcher(prompt -> {
+            throw new RuntimeException("AI service unavailable, please try again later.");
+        }, true, 8, 5, 1, 5000, new SimpleMeterRegistry());
+        batcher.start();
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> batcher.generate("p"));
+        assertEquals("AI service unavailable, please try again later.", error.getMessage());
+    }
+
+    @Test
+    void generate_DisabledCallsClientDirectly() {
+        batcher = new AiRequestBatcher(echoClient, false, 8, 5, 1, 5000, new SimpleMeterRegistry());
+        batcher.start();
+
+        assertEquals("bio:p", batcher.generate("p"));
+        assertEquals(List.of(1), batchSizes);
+    }
+
+    @Test
+    void generate_GivesUpAfterTheTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        batcher = new AiRequestBatcher(prompt -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "late";
+        }, true, 8, 5, 1, 100, new SimpleMeterRegistry());
+        batcher.start();
+
+        try {
+            AiUnavailableException error = assertThrows(AiUnavailableException.class, () -> batcher.generate("p"));
+            assertEquals("No AI response within 100ms", error.getMessage());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void stop_FailsPromptsThatWereNotSentYet() throws Exception {
+        // a long max-wait keeps the first prompt in the batch being collected until stop() interrupts it
+        batcher = new AiRequestBatcher(echoClient, true, 8, 60_000, 1, 60_000, new SimpleMeterRegistry());
+        batcher.start();
+
+        CompletableFuture<String> caller = CompletableFuture.supplyAsync(() -> batcher.generate("p"));
+        Thread.sleep(200);
+        batcher.stop();
+
+        Exception error = assertThrows(Exception.class, () -> caller.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(AiUnavailableException.class, error.getCause());
+        assertTrue(batchSizes.isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.persons.finder.infrastructure.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BioCacheTest {
+
+    @Test
+    void get_NormalizedInputsHitTheSameEntry() {
+        BioCache cache = new BioCache(true, 100, 60);
+        AtomicInteger calls = new AtomicInteger();
+
+        String first = cache.get("Alex", "Engineer", "Hiking, Coding, Coffee", () -> "bio-" + calls.incrementAndGet());
+        String second = cache.get(" alex ", "ENGINEER", "coffee,hiking , coding", () -> "bio-" + calls.incrementAndGet());
+
+        assertEquals("bio-1", first);
+        assertEquals("bio-1", second);
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void get_ConcurrentIdenticalRequestsShareOneUpstreamCall() throws Exception {
+        BioCache cache = new BioCache(true, 100, 60);
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(() -> cache.get("Alex", "Engineer", "Hiking", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "shared";
+                })));
+            }
+            // let every caller reach the cache before the single upstream call returns
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("shared", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(7, cache.stats().hits() + cache.stats().sharedInFlight());
+    }
+
+    @Test
+    void get_FailuresAreNotCached() {
+        BioCache cache = new BioCache(true, 100, 60);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("Alex", "Engineer", "Hiking", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+        assertEquals("recovered", cache.get("Alex", "Engineer", "Hiking", () -> "recovered"));
+    }
+
+    @Test
+    void get_EvictsBeyondMaximumSize() {
+        BioCache cache = new BioCache(true, 2, 60);
+        for (int i = 0; i < 50; i++) {
+            String name = "Person " + i;
+            cache.get(name, "Engineer", "Hiking", () -> name);
+        }
+
+        // Caffeine evicts asynchronously; give its maintenance a moment
+        long deadline = System.currentTimeMillis() + 5000;
+        while (cache.stats().evictions() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(cache.stats().evictions() > 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
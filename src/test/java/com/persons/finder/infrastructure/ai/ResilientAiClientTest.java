@@ -0,0 +1,158 @@
+package com.persons.finder.infrastructure.ai;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.persons.finder.config.RestTemplateConfig;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link ResilientAiClient} over a real {@link OpenAiClient} and the pooled RestTemplate
+ * against a local stub of the completions API.
+ */
+class ResilientAiClientTest {
+
+    private static final byte[] COMPLETION =
+            "{\"choices\":[{\"message\":{\"content\":\"bio\"}}]}".getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private volatile int status = 200;
+    private volatile long firstRequestDelayMs;
+    private volatile long delayMs;
+    private volatile byte[] lastRequest;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private ResilientAiClient client;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v1/chat/completions", exchange -> {
+            int n = requests.incrementAndGet();
+            lastRequest = exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(n == 1 && firstRequestDelayMs > 0 ? firstRequestDelayMs : delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, COMPLETION.length);
+            exchange.getResponseBody().write(COMPLETION);
+            exchange.close();
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        client.stop();
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void generate_WhenUpstreamKeepsFailing_ShouldOpenCircuitAndFailFast() {
+        status = 500;
+        client = client(8, 0, 4, 0);
+
+        for (int i = 0; i < 4; i++) {
+            RuntimeException e = assertThrows(RuntimeException.class, () -> client.generate("prompt"));
+            assertFalse(e instanceof AiUnavailableException);
+        }
+
+        assertThrows(AiUnavailableException.class, () -> client.generate("prompt"));
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+        assertEquals(4, requests.get());
+    }
+
+    @Test
+    void generate_BeyondConcurrencyLimit_ShouldBeRejectedByBulkhead() throws Exception {
+        delayMs = 500;
+        client = client(1, 0, 10, 0);
+
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> client.generate("first"));
+        while (requests.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertThrows(AiUnavailableException.class, () -> client.generate("second"));
+        assertEquals("bio", inFlight.get());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void generate_OnVirtualThreads_ShouldQueueForBulkheadInsteadOfRejecting() throws Exception {
+        delayMs = 500;
+        client = client(1, 0, true, 10, 0);
+
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> client.generate("first"));
+        while (requests.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        assertEquals("bio", client.generate("second"));
+        assertEquals("bio", inFlight.get());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void generate_WhenFirstAttemptIsSlow_ShouldAnswerFromHedge() {
+        firstRequestDelayMs = 3000;
+        client = client(8, 0, 10, 100);
+
+        long start = System.nanoTime();
+        String bio = client.generate("prompt");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("bio", bio);
+        assertEquals(2, requests.get());
+        assertTrue(elapsedMs < 2000, "hedged call took " + elapsedMs + "ms");
+    }
+
+    @Test
+    void generate_RepeatedCalls_ShouldReuseOnePooledConnection() throws Exception {
+        client = client(8, 0, 10, 0);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("bio", client.generate("prompt " + i));
+        }
+
+        assertEquals(5, requests.get());
+        JsonNode message = new ObjectMapper().readTree(lastRequest).path("messages").get(0);
+        assertEquals("prompt 4", message.path("content").asText());
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.connections.opened")
+                .tag("scheme", "http").counter().count());
+    }
+
+    private ResilientAiClient client(int maxConcurrentCalls, long maxWaitMs, int minimumCalls, long hedgeDelayMs) {
+        return client(maxConcurrentCalls, maxWaitMs, false, minimumCalls, hedgeDelayMs);
+    }
+
+    private ResilientAiClient client(int maxConcurrentCalls, long maxWaitMs, boolean virtualThreads,
+                                     int minimumCalls, long hedgeDelayMs) {
+        OpenAiClient upstream = new OpenAiClient(
+                new RestTemplateConfig().restTemplate(meterRegistry, 1000, 5000, 8, 8, 1000, 30000),
+                new ObjectMapper(),
+                "http://localhost:" + server.getAddress().getPort() + "/v1/chat/completions",
+                "test");
+        return new ResilientAiClient(upstream, meterRegistry, true, maxConcurrentCalls, maxWaitMs,
+                virtualThreads, 5000, 50, 50, 5000, minimumCalls, minimumCalls, 30000, hedgeDelayMs);
+    }
+}
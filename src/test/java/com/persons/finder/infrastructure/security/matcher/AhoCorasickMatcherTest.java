@@ -0,0 +1,55 @@
+package com.persons.finder.infrastructure.security.matcher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickMatcherTest {
+
+    @Test
+    void findFirst_IgnoresCaseAndFollowsFailureLinks() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("he", "she", "hers", "Ignore All"));
+
+        assertEquals("she", matcher.findFirst("uSHErs"));
+        assertEquals("he", matcher.findFirst("ahe"));
+        assertEquals("Ignore All", matcher.findFirst("please IGNORE ALL instructions"));
+        assertNull(matcher.findFirst("hxrs sh"));
+        assertNull(matcher.findFirst(null));
+    }
+
+    @Test
+    void empty_MatchesNothing() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(Arrays.asList("", null));
+
+        assertTrue(matcher.isEmpty());
+        assertNull(matcher.findFirst("anything"));
+        assertNull(AhoCorasickMatcher.empty().findFirst("anything"));
+    }
+
+    @Test
+    void findFirst_AgreesWithNaiveContains() {
+        Random random = new Random(11);
+        List<String> patterns = List.of("ab", "bab", "abba", "c", "aac", "bbbb");
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(patterns);
+
+        for (int i = 0; i < 2_000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                text.append("aAbBcx".charAt(random.nextInt(6)));
+            }
+            String lower = text.toString().toLowerCase(Locale.ROOT);
+            boolean expected = patterns.stream().anyMatch(lower::contains);
+            String found = matcher.findFirst(text);
+            assertEquals(expected, found != null, text.toString());
+            if (found != null) {
+                assertTrue(lower.contains(found));
+            }
+        }
+    }
+}
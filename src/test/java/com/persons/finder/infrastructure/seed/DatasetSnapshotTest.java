@@ -0,0 +1,89 @@
+package com.persons.finder.infrastructure.seed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DatasetSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    private Path database;
+    private Path snapshotFile;
+    private SingleConnectionDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        database = dir.resolve("work/persons");
+        snapshotFile = dir.resolve("snapshot.zip");
+        open();
+        jdbcTemplate.execute("CREATE TABLE persons (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "name VARCHAR(255) NOT NULL, latitude DOUBLE, longitude DOUBLE)");
+        jdbcTemplate.execute("CREATE INDEX idx_location ON persons (latitude, longitude)");
+        jdbcTemplate.execute("CREATE TABLE security_patterns (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "pattern VARCHAR(255) NOT NULL UNIQUE, type VARCHAR(255) NOT NULL)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void saveThenRestore_ResetsDatabaseToSnapshot() {
+        jdbcTemplate.execute("INSERT INTO persons (name, latitude, longitude) VALUES ('A', 1, 2), ('B', 3, 4)");
+        new DatasetSnapshot(jdbcTemplate, true, snapshotFile).save(2);
+        jdbcTemplate.execute("INSERT INTO persons (name) VALUES ('written after the snapshot')");
+        close();
+
+        assertTrue(DatasetSnapshotRestorer.restore(snapshotFile, database));
+        open();
+
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM persons", Integer.class));
+        assertTrue(new DatasetSnapshot(jdbcTemplate, true, snapshotFile).isCurrent(2));
+        jdbcTemplate.execute("INSERT INTO persons (name) VALUES ('C')");
+        assertEquals(3L, jdbcTemplate.queryForObject("SELECT id FROM persons WHERE name = 'C'", Long.class));
+    }
+
+    @Test
+    void isCurrent_RejectsOtherSchemaOrSize() {
+        DatasetSnapshot snapshot = new DatasetSnapshot(jdbcTemplate, true, snapshotFile);
+        snapshot.save(1);
+
+        assertTrue(snapshot.isCurrent(1));
+        assertFalse(snapshot.isCurrent(2));
+        jdbcTemplate.execute("ALTER TABLE persons ADD COLUMN bio VARCHAR(255)");
+        assertFalse(snapshot.isCurrent(1));
+    }
+
+    @Test
+    void restore_WithoutSnapshot_ClearsWorkingDatabase() {
+        close();
+
+        assertFalse(DatasetSnapshotRestorer.restore(snapshotFile, database));
+        assertFalse(Files.exists(dir.resolve("work/persons.mv.db")));
+        open();
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'PERSONS'", Integer.class));
+    }
+
+    private void open() {
+        dataSource = new SingleConnectionDataSource("jdbc:h2:file:" + database + ";MODE=MySQL", "sa", "", true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // the last connection closing closes the H2 database file
+    private void close() {
+        dataSource.destroy();
+    }
+}
@@ -0,0 +1,133 @@
+package com.persons.finder.infrastructure.spatial;
+
+import com.persons.finder.infrastructure.util.GeoUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersonSpatialIndexTest {
+
+    private PersonSpatialIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PersonSpatialIndex(null, true, 0.1);
+    }
+
+    @Test
+    void findWithin_ReturnsClosestFirstAndRespectsRadius() {
+        index.put(1L, -41.2865, 174.7762); // centre
+        index.put(2L, -41.32, 174.78);     // ~3.7km
+        index.put(3L, -36.84, 174.76);     // Auckland, far away
+
+        assertArrayEquals(new long[]{1L, 2L}, index.findWithin(-41.2865, 174.7762, 10.0, 0, 10));
+        assertArrayEquals(new long[]{1L}, index.findWithin(-41.2865, 174.7762, 1.0, 0, 10));
+        assertArrayEquals(new long[]{2L}, index.findWithin(-41.2865, 174.7762, 10.0, 1, 10));
+    }
+
+    @Test
+    void put_MovesExistingPersonBetweenCells() {
+        index.put(1L, -41.2865, 174.7762);
+        index.put(1L, -36.8485, 174.7633);
+
+        assertEquals(1, index.size());
+        assertEquals(0, index.findWithin(-41.2865, 174.7762, 10.0, 0, 10).length);
+        assertArrayEquals(new long[]{1L}, index.findWithin(-36.8485, 174.7633, 10.0, 0, 10));
+    }
+
+    @Test
+    void remove_DropsPerson() {
+        index.put(1L, 40.7128, -74.0060);
+        index.remove(1L);
+        index.remove(42L);
+
+        assertEquals(0, index.size());
+        assertEquals(0, index.findWithin(40.7128, -74.0060, 10.0, 0, 10).length);
+    }
+
+    @Test
+    void put_WhenDisabled_KeepsTheGridEmpty() {
+        PersonSpatialIndex disabled = new PersonSpatialIndex(null, false, 0.1);
+        disabled.put(1L, -41.2865, 174.7762);
+        disabled.refresh(1L);
+        disabled.remove(1L);
+
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    void findWithin_MatchesBruteForce() {
+        Random random = new Random(7);
+        int n = 20_000;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            lats[i] = -41.5 + random.nextDouble();
+            lons[i] = 174.0 + random.nextDouble() * 1.5;
+            index.put(i, lats[i], lons[i]);
+        }
+        // churn a third of the points so removals and swaps are exercised as well
+        for (int i = 0; i < n; i += 3) {
+            lats[i] = -41.5 + random.nextDouble();
+            lons[i] = 174.0 + random.nextDouble() * 1.5;
+            index.put(i, lats[i], lons[i]);
+        }
+
+        double lat = -41.0;
+        double lon = 174.7;
+        double radius = 25.0;
+        long[] expected = IntStream.range(0, n)
+                .filter(i -> GeoUtils.distanceKm(lat, lon, lats[i], lons[i]) <= radius)
+                .boxed()
+                .sorted(Comparator.<Integer>comparingDouble(i -> GeoUtils.distanceKm(lat, lon, lats[i], lons[i]))
+                        .thenComparing(i -> i))
+                .mapToLong(Integer::longValue)
+                .toArray();
+
+        assertTrue(expected.length > 100);
+        assertArrayEquals(expected, index.findWithin(lat, lon, radius, 0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    void findNearest_MatchesBruteForceAcrossDensities() {
+        Random random = new Random(11);
+        int n = 5_000;
+        double[] lats = new double[n];
+        double[] lons = new double[n];
+        for (int i = 0; i < n; i++) {
+            // a dense city cluster plus sparse points spread over the globe
+            boolean city = i % 5 != 0;
+            lats[i] = city ? 40.7 + random.nextDouble() * 0.05 : -90 + random.nextDouble() * 180;
+            lons[i] = city ? -74.0 + random.nextDouble() * 0.05 : -180 + random.nextDouble() * 360;
+            index.put(i, lats[i], lons[i]);
+        }
+
+        double[][] queries = {{40.72, -73.98}, {-41.28, 174.77}, {0, 179.99}, {89.9, 10}};
+        for (double[] q : queries) {
+            for (int k : new int[]{1, 7, 50}) {
+                long[] expected = IntStream.range(0, n)
+                        .boxed()
+                        .sorted(Comparator.<Integer>comparingDouble(i -> GeoUtils.distanceKm(q[0], q[1], lats[i], lons[i]))
+                                .thenComparing(i -> i))
+                        .limit(k)
+                        .mapToLong(Integer::longValue)
+                        .toArray();
+                assertArrayEquals(expected, index.findNearest(q[0], q[1], k));
+            }
+        }
+    }
+
+    @Test
+    void findNearest_ReturnsEverythingWhenFewerThanK() {
+        index.put(1L, 10, 10);
+        index.put(2L, -10, -10);
+
+        assertArrayEquals(new long[]{1L, 2L}, index.findNearest(9, 9, 5));
+        assertEquals(0, index.findNearest(9, 9, 0).length);
+    }
+}
\ No newline at end of file